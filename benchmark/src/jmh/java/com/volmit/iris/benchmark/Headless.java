@@ -0,0 +1,162 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.object.IrisCompat;
+import com.volmit.iris.util.collection.KMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.plugin.java.JavaPlugin;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Boots just enough of Iris and Bukkit to run generation code on a plain JVM. The server is
+ * a proxy which only knows how to create block data, block data is an interned proxy which
+ * only knows its material and string form. Nothing here is meant to run inside a server.
+ */
+public final class Headless {
+    private static final KMap<String, BlockData> blocks = new KMap<>();
+    private static boolean started;
+
+    private Headless() {
+
+    }
+
+    /**
+     * Start the headless environment once per JVM
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        try {
+            IrisSettings.settings = new IrisSettings();
+            Bukkit.setServer((Server) Proxy.newProxyInstance(Headless.class.getClassLoader(), new Class[]{Server.class}, (proxy, method, args) -> server(method, args)));
+            Iris.instance = plugin();
+            Iris.compat = new IrisCompat();
+            started = true;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to start headless Iris", e);
+        }
+    }
+
+    /**
+     * Get the interned block data for a block state
+     *
+     * @param state the block state such as minecraft:stone
+     * @return the block data
+     */
+    public static BlockData block(String state) {
+        String s = state.contains(":") ? state : "minecraft:" + state;
+        return blocks.computeIfAbsent(s.toLowerCase(), (k) -> {
+            String name = k.contains("[") ? k.substring(0, k.indexOf('[')) : k;
+            Material material = Material.matchMaterial(name);
+
+            if (material == null || !material.isBlock()) {
+                throw new IllegalArgumentException("Unknown block " + k);
+            }
+
+            BlockData[] self = new BlockData[1];
+            self[0] = (BlockData) Proxy.newProxyInstance(Headless.class.getClassLoader(), new Class[]{BlockData.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "getMaterial" -> material;
+                case "getAsString" -> k;
+                case "clone", "merge" -> self[0];
+                case "matches" -> args[0] == self[0];
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> k.hashCode();
+                case "toString" -> "HeadlessBlockData{" + k + "}";
+                default -> defaultValue(method);
+            });
+            return self[0];
+        });
+    }
+
+    private static Object server(Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "getLogger" -> Logger.getLogger("Iris");
+            case "getName", "getVersion", "getBukkitVersion" -> "Headless";
+            case "createBlockData" -> {
+                if (args[0] instanceof Material m) {
+                    yield block(m.getKey().toString());
+                }
+
+                yield block((String) args[0]);
+            }
+            case "isPrimaryThread" -> false;
+            default -> defaultValue(method);
+        };
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> r = method.getReturnType();
+
+        if (r == boolean.class) {
+            return false;
+        } else if (r == int.class) {
+            return 0;
+        } else if (r == short.class) {
+            return (short) 0;
+        } else if (r == byte.class) {
+            return (byte) 0;
+        } else if (r == char.class) {
+            return '\0';
+        } else if (r == long.class) {
+            return 0L;
+        } else if (r == double.class) {
+            return 0D;
+        } else if (r == float.class) {
+            return 0F;
+        }
+
+        return null;
+    }
+
+    /**
+     * Allocate the plugin without running the plugin constructor, which refuses to work outside
+     * of a plugin class loader. Only the service map and the jar file are filled in.
+     */
+    private static Iris plugin() throws ReflectiveOperationException {
+        Field u = Unsafe.class.getDeclaredField("theUnsafe");
+        u.setAccessible(true);
+        Iris iris = (Iris) ((Unsafe) u.get(null)).allocateInstance(Iris.class);
+
+        KMap<Class<?>, Object> services = new KMap<>();
+        services.put(PreservationSVC.class, new PreservationSVC());
+        Field s = Iris.class.getDeclaredField("services");
+        s.setAccessible(true);
+        s.set(iris, services);
+
+        Field f = JavaPlugin.class.getDeclaredField("file");
+        f.setAccessible(true);
+        f.set(iris, new File(Iris.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        return iris;
+    }
+}
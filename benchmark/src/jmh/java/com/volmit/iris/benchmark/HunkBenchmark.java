@@ -0,0 +1,83 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.hunk.Hunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling and scanning a chunk sized hunk with every hunk implementation the engine picks from
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HunkBenchmark {
+    private static final int HEIGHT = 384;
+
+    @Param({"array", "synchronized", "mapped", "atomic", "atomicInteger"})
+    private String kind;
+
+    private Hunk<Integer> hunk;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Headless.start();
+        hunk = switch (kind) {
+            case "synchronized" -> Hunk.newSynchronizedArrayHunk(16, HEIGHT, 16);
+            case "mapped" -> Hunk.newMappedHunk(16, HEIGHT, 16);
+            case "atomic" -> Hunk.newAtomicHunk(16, HEIGHT, 16);
+            case "atomicInteger" -> Hunk.newAtomicIntegerHunk(16, HEIGHT, 16);
+            default -> Hunk.newArrayHunk(16, HEIGHT, 16);
+        };
+        fill();
+    }
+
+    @Benchmark
+    public Hunk<Integer> fill() {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    hunk.setRaw(x, y, z, y);
+                }
+            }
+        }
+
+        return hunk;
+    }
+
+    @Benchmark
+    public void read(Blackhole b) {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    b.consume(hunk.getRaw(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole b) {
+        hunk.iterateSync((x, y, z, t) -> b.consume(t));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.engine.mantle.MantleWriter;
+import com.volmit.iris.util.io.IO;
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.matter.MatterCavern;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing mantle features the way the mantle components do, through a writer over a three by
+ * three chunk area of an on disk mantle
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MantleWriterBenchmark {
+    private static final int WORLD_HEIGHT = 384;
+
+    private File folder;
+    private Mantle mantle;
+    private MatterCavern cavern;
+
+    @Setup
+    public void setup() throws IOException {
+        Headless.start();
+        folder = Files.createTempDirectory("iris-mantle-benchmark").toFile();
+        mantle = new Mantle(folder, WORLD_HEIGHT);
+        cavern = new MatterCavern(true, "", (byte) 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mantle.close();
+        IO.delete(folder);
+    }
+
+    @Benchmark
+    public void cuboid() {
+        MantleWriter writer = new MantleWriter(null, mantle, 0, 0, 1);
+        writer.setCuboid(-8, 32, -8, 23, 95, 23, Boolean.TRUE);
+        writer.close();
+    }
+
+    @Benchmark
+    public void sphere() {
+        MantleWriter writer = new MantleWriter(null, mantle, 0, 0, 1);
+        writer.setSphere(8, 64, 8, 14, true, cavern);
+        writer.close();
+    }
+
+    @Benchmark
+    public void cylinder() {
+        MantleWriter writer = new MantleWriter(null, mantle, 0, 0, 1);
+        writer.setCylinder(8, 40, 8, cavern, 10, 48, true);
+        writer.close();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.io.CountingDataInputStream;
+import com.volmit.iris.util.mantle.MantleChunk;
+import com.volmit.iris.util.mantle.TectonicPlate;
+import com.volmit.iris.util.matter.IrisMatter;
+import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterCavern;
+import org.bukkit.block.data.BlockData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of single matter sections and of whole tectonic plates, filled the way the
+ * mantle fills them with block data, caverns and integer slices
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatterBenchmark {
+    private static final int WORLD_HEIGHT = 384;
+    private static final String[] PALETTE = {"stone", "dirt", "grass_block", "deepslate", "water", "andesite", "gravel", "oak_log"};
+
+    private Matter matter;
+    private byte[] matterBytes;
+    private TectonicPlate plate;
+    private byte[] plateBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        Headless.start();
+        BlockData[] palette = new BlockData[PALETTE.length];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = Headless.block(PALETTE[i]);
+        }
+
+        matter = new IrisMatter(16, 16, 16);
+        fill(matter, palette, 0);
+        matterBytes = writeMatter();
+
+        plate = new TectonicPlate(WORLD_HEIGHT, 0, 0);
+        for (int x = 0; x < 8; x++) {
+            for (int z = 0; z < 8; z++) {
+                MantleChunk chunk = plate.getOrCreate(x, z);
+
+                for (int s = 0; s < 4; s++) {
+                    fill(chunk.getOrCreate(s), palette, (x * 31) + (z * 17) + s);
+                }
+            }
+        }
+
+        plateBytes = writePlate();
+    }
+
+    private static void fill(Matter m, BlockData[] palette, int seed) {
+        MatterCavern cavern = new MatterCavern(true, "", (byte) 0);
+
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    int h = (x * 73856093) ^ (y * 19349663) ^ (z * 83492791) ^ seed;
+                    m.slice(BlockData.class).set(x, y, z, palette[(h >>> 8) & 7]);
+
+                    if ((h & 15) == 0) {
+                        m.slice(MatterCavern.class).set(x, y, z, cavern);
+                    }
+
+                    if ((h & 63) == 1) {
+                        m.slice(Integer.class).set(x, y, z, h);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] writeMatter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        matter.write(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Matter readMatter() throws IOException {
+        return Matter.read(new ByteArrayInputStream(matterBytes));
+    }
+
+    @Benchmark
+    public byte[] writePlate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+        DataOutputStream dos = new DataOutputStream(out);
+        plate.write(dos);
+        dos.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public TectonicPlate readPlate() throws IOException {
+        return new TectonicPlate(WORLD_HEIGHT, CountingDataInputStream.wrap(new ByteArrayInputStream(plateBytes)));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.noise.CNG;
+import com.volmit.iris.util.noise.NoiseType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CNG sampling, per sample and for a whole chunk column grid
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoiseBenchmark {
+    @Param({"SIMPLEX", "CELLULAR", "PERLIN"})
+    private NoiseType type;
+
+    private CNG plain;
+    private CNG fractured;
+    private double[] grid;
+
+    @Setup
+    public void setup() {
+        Headless.start();
+        RNG rng = new RNG(1337);
+        plain = new CNG(rng.nextParallelRNG(1), type, 1D, 1).scale(0.01);
+        fractured = CNG.signature(rng.nextParallelRNG(2), type).scale(0.01);
+        grid = new double[256];
+    }
+
+    @Benchmark
+    public void sample2D(Blackhole b) {
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                b.consume(plain.noise(i, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public void sample3D(Blackhole b) {
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                b.consume(plain.noise(i, 64, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public void sampleFractured2D(Blackhole b) {
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                b.consume(fractured.noise(i, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] grid2D() {
+        plain.noise2D(0, 0, 16, 16, grid);
+        return grid;
+    }
+
+    @Benchmark
+    public double[] gridFractured2D() {
+        fractured.noise2D(0, 0, 16, 16, grid);
+        return grid;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.object.*;
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.math.RNG;
+import org.bukkit.block.data.BlockData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotating an object into a variant and placing it into an in memory block buffer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ObjectBenchmark {
+    private static final int SIZE = 64;
+
+    @Param({"8", "24"})
+    private int objectSize;
+
+    private IrisObject object;
+    private IrisObjectRotation rotation;
+    private IrisObjectPlacement placement;
+    private BufferPlacer placer;
+    private RNG rng;
+
+    @Setup
+    public void setup() {
+        Headless.start();
+        BlockData log = Headless.block("oak_log");
+        BlockData leaves = Headless.block("oak_leaves");
+        object = new IrisObject(objectSize, objectSize, objectSize);
+        int c = objectSize / 2;
+
+        for (int x = 0; x < objectSize; x++) {
+            for (int y = 0; y < objectSize; y++) {
+                for (int z = 0; z < objectSize; z++) {
+                    int dx = x - c;
+                    int dy = y - c;
+                    int dz = z - c;
+
+                    if (dx == 0 && dz == 0 && y < c) {
+                        object.setUnsigned(x, y, z, log);
+                    } else if ((dx * dx) + (dy * dy) + (dz * dz) <= c * c && y >= c / 2) {
+                        object.setUnsigned(x, y, z, leaves);
+                    }
+                }
+            }
+        }
+
+        object.compact();
+        rotation = IrisObjectRotation.of(0, 90, 0);
+        placement = new IrisObjectPlacement();
+        placement.setRotation(rotation);
+        placement.setForcePlace(true);
+        placer = new BufferPlacer(Hunk.newArrayHunk(SIZE, SIZE, SIZE));
+        rng = new RNG(1337);
+    }
+
+    @Benchmark
+    public IrisObjectVariant rotate() {
+        IrisObjectVariant.invalidate();
+        return IrisObjectVariant.of(object, rotation, 0, 90_000, 0);
+    }
+
+    @Benchmark
+    public IrisObjectVariant rotateCached() {
+        return IrisObjectVariant.of(object, rotation, 0, 90_000, 0);
+    }
+
+    @Benchmark
+    public int place() {
+        return object.place(SIZE / 2, SIZE / 4, SIZE / 2, placer, placement, rng, null);
+    }
+
+    /**
+     * Places into a fixed hunk, everything outside of it is dropped
+     */
+    private static class BufferPlacer implements IObjectPlacer {
+        private final Hunk<BlockData> buffer;
+
+        private BufferPlacer(Hunk<BlockData> buffer) {
+            this.buffer = buffer;
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= 0 && y >= 0 && z >= 0 && x < buffer.getWidth() && y < buffer.getHeight() && z < buffer.getDepth();
+        }
+
+        @Override
+        public int getHighest(int x, int z, IrisData data) {
+            return 0;
+        }
+
+        @Override
+        public int getHighest(int x, int z, IrisData data, boolean ignoreFluid) {
+            return 0;
+        }
+
+        @Override
+        public void set(int x, int y, int z, BlockData d) {
+            if (contains(x, y, z)) {
+                buffer.setRaw(x, y, z, d);
+            }
+        }
+
+        @Override
+        public BlockData get(int x, int y, int z) {
+            return contains(x, y, z) ? buffer.getRaw(x, y, z) : null;
+        }
+
+        @Override
+        public boolean isPreventingDecay() {
+            return false;
+        }
+
+        @Override
+        public boolean isCarved(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            return get(x, y, z) != null;
+        }
+
+        @Override
+        public boolean isUnderwater(int x, int z) {
+            return false;
+        }
+
+        @Override
+        public int getFluidHeight() {
+            return 0;
+        }
+
+        @Override
+        public boolean isDebugSmartBore() {
+            return false;
+        }
+
+        @Override
+        public void setTile(int xx, int yy, int zz, TileData tile) {
+
+        }
+
+        @Override
+        public Engine getEngine() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.benchmark;
+
+import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.noise.CNG;
+import com.volmit.iris.util.stream.ProceduralStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The procedural stream families the complex is built from, sampled over one chunk. The
+ * cached stream is measured both while it is warm and while it misses on every chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamBenchmark {
+    private ProceduralStream<Double> source;
+    private ProceduralStream<Double> converted;
+    private ProceduralStream<Integer> rounded;
+    private ProceduralStream<Double> bilinear;
+    private ProceduralStream<Double> bicubic;
+    private ProceduralStream<Double> cached;
+    private double[] out;
+    private Double[] boxed;
+    private int chunk;
+
+    @Setup
+    public void setup() {
+        Headless.start();
+        CNG cng = new CNG(new RNG(1337), 1D, 1).scale(0.01);
+        source = cng.stream(0, 256);
+        converted = source.add(32).max(64D).fit(0, 320);
+        rounded = converted.round();
+        bilinear = source.interpolate().bilinear(4);
+        bicubic = source.interpolate().bicubic(4);
+        cached = converted.cache2D("benchmark", null, 1024);
+        out = new double[256];
+        boxed = new Double[256];
+    }
+
+    @Benchmark
+    public double[] source() {
+        source.fill2D(0, 0, 16, 16, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] converted() {
+        converted.fill2D(0, 0, 16, 16, out);
+        return out;
+    }
+
+    @Benchmark
+    public void rounded(Blackhole b) {
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                b.consume(rounded.get(i, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] bilinear() {
+        bilinear.fill2D(0, 0, 16, 16, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bicubic() {
+        bicubic.fill2D(0, 0, 16, 16, out);
+        return out;
+    }
+
+    @Benchmark
+    public Double[] cachedHit() {
+        cached.fill2D(0, 0, 16, 16, boxed);
+        return boxed;
+    }
+
+    @Benchmark
+    public Double[] cachedMiss() {
+        int c = chunk++;
+        cached.fill2D((c & 0xFFFF) << 4, (c >>> 16) << 4, 16, 16, boxed);
+        return boxed;
+    }
+}
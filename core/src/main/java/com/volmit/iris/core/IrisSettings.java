@@ -23,6 +23,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.util.io.IO;
 import com.volmit.iris.util.json.JSONException;
 import com.volmit.iris.util.json.JSONObject;
+import com.volmit.iris.util.mantle.TectonicEvictionPolicy;
 import com.volmit.iris.util.plugin.VolmitSender;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import lombok.AllArgsConstructor;
@@ -35,7 +36,9 @@ import java.io.IOException;
 @SuppressWarnings("SynchronizeOnNonFinalField")
 @Data
 public class IrisSettings {
+    public static final int CONFIG_VERSION = 1;
     public static IrisSettings settings;
+    private int configVersion = 0;
     private IrisSettingsGeneral general = new IrisSettingsGeneral();
     private IrisSettingsWorld world = new IrisSettingsWorld();
     private IrisSettingsGUI gui = new IrisSettingsGUI();
@@ -64,6 +67,8 @@ public class IrisSettings {
         File s = Iris.instance.getDataFile("settings.json");
 
         if (!s.exists()) {
+            settings.configVersion = CONFIG_VERSION;
+
             try {
                 IO.writeAll(s, new JSONObject(new Gson().toJson(settings)).toString(4));
             } catch (JSONException | IOException e) {
@@ -74,6 +79,8 @@ public class IrisSettings {
             try {
                 String ss = IO.readAll(s);
                 settings = new Gson().fromJson(ss, IrisSettings.class);
+                settings.migrate(new JSONObject(ss));
+                settings.configVersion = CONFIG_VERSION;
                 try {
                     IO.writeAll(s, new JSONObject(new Gson().toJson(settings)).toString(4));
                 } catch (IOException e) {
@@ -88,6 +95,37 @@ public class IrisSettings {
         return settings;
     }
 
+    /**
+     * Carry settings written by older versions over to their current meaning. Files without
+     * a config version predate the reworked performance settings, the file is saved with the
+     * current version after this so it only ever runs once.
+     *
+     * @param json the settings as they were read from disk
+     */
+    private void migrate(JSONObject json) {
+        JSONObject p = json.optJSONObject("performance");
+
+        if (configVersion >= 1 || p == null) {
+            return;
+        }
+
+        IrisSettingsPerformance defaults = new IrisSettingsPerformance();
+
+        // cacheSize used to be ignored and defaulted to 4096, it now sizes every 2D stream cache in chunks
+        if (p.optInt("cacheSize", 0) == 4_096) {
+            performance.cacheSize = defaults.cacheSize;
+        }
+
+        // The loader caches were bounded by entry counts (1024 and 4096 by default), scale tuned counts to megabytes
+        if (p.has("resourceLoaderCacheSize")) {
+            performance.resourceLoaderCacheMB = (int) Math.max(1, Math.round(defaults.resourceLoaderCacheMB * p.optInt("resourceLoaderCacheSize", 1_024) / 1_024D));
+        }
+
+        if (p.has("objectLoaderCacheSize")) {
+            performance.objectLoaderCacheMB = (int) Math.max(1, Math.round(defaults.objectLoaderCacheMB * p.optInt("objectLoaderCacheSize", 4_096) / 4_096D));
+        }
+    }
+
     public static void invalidate() {
         synchronized (settings) {
             settings = null;
@@ -141,10 +179,24 @@ public class IrisSettings {
     public static class IrisSettingsPerformance {
         public boolean trimMantleInStudio = false; 
         public int mantleKeepAlive = 30;
-        public int cacheSize = 4_096;
-        public int resourceLoaderCacheSize = 1_024;
-        public int objectLoaderCacheSize = 4_096;
+        public int cacheSize = 1_024;
+        public int resourceLoaderCacheMB = 32;
+        public int objectLoaderCacheMB = 512;
         public int scriptLoaderCacheSize = 512;
+        public int mantleCacheBudgetMB = 0;
+        public TectonicEvictionPolicy mantleEvictionPolicy = TectonicEvictionPolicy.LRU;
+        public int mantlePrefetchConcurrency = 4;
+        public int objectVariantCacheMB = 128;
+        public int locatorThreads = 2;
+        public boolean locatorIndex = true;
+
+        public long getMantleCacheBudgetBytes() {
+            if (mantleCacheBudgetMB > 0) {
+                return mantleCacheBudgetMB * 1024L * 1024L;
+            }
+
+            return Runtime.getRuntime().maxMemory() / 4;
+        }
     }
 
     @Data
@@ -36,6 +36,7 @@ import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.io.IO;
 import com.volmit.iris.util.mantle.TectonicPlate;
+import com.volmit.iris.util.mantle.TectonicPlateCache;
 import com.volmit.iris.util.nbt.mca.MCAFile;
 import com.volmit.iris.util.nbt.mca.MCAUtil;
 import com.volmit.iris.util.parallel.MultiBurst;
@@ -71,6 +72,13 @@ public class CommandDeveloper implements DecreeExecutor {
         int TotalQueuedTectonicPlates = 0;
         int TotalNotQueuedTectonicPlates = 0;
         int TotalTectonicPlates = 0;
+        long TotalTectonicWeight = 0;
+        long TotalTectonicHits = 0;
+        long TotalTectonicMisses = 0;
+        long TotalTectonicPrefetchHits = 0;
+        long TotalTectonicLockAcquisitions = 0;
+        long TotalTectonicLockContended = 0;
+        long TotalTectonicLockWait = 0;
 
         long lowestUnloadDuration = 0;
         long highestUnloadDuration = 0;
@@ -90,6 +98,14 @@ public class CommandDeveloper implements DecreeExecutor {
             TotalQueuedTectonicPlates += (int) engine.getMantle().getToUnload();
             TotalNotQueuedTectonicPlates += (int) engine.getMantle().getNotQueuedLoadedRegions();
             TotalTectonicPlates += engine.getMantle().getLoadedRegionCount();
+            TotalTectonicWeight += engine.getMantle().getTectonicWeight();
+            TectonicPlateCache plates = engine.getMantle().getMantle().getLoadedRegions();
+            TotalTectonicHits += plates.getHitCount();
+            TotalTectonicMisses += plates.getMissCount();
+            TotalTectonicPrefetchHits += plates.getPrefetchHitCount();
+            TotalTectonicLockAcquisitions += engine.getMantle().getMantle().getHyperLock().getAcquisitions();
+            TotalTectonicLockContended += engine.getMantle().getMantle().getHyperLock().getContended();
+            TotalTectonicLockWait += engine.getMantle().getTectonicLockWait();
             if (highestUnloadDuration <= (long) engine.getMantle().getTectonicDuration()) {
                 highestUnloadDuration = (long) engine.getMantle().getTectonicDuration();
             }
@@ -102,6 +118,11 @@ public class CommandDeveloper implements DecreeExecutor {
                 }
             }
         }
+        long TotalTectonicRequests = TotalTectonicHits + TotalTectonicMisses;
+        double TotalTectonicHitRate = TotalTectonicRequests == 0 ? 1D : (double) TotalTectonicHits / TotalTectonicRequests;
+        long TotalTectonicWaits = TotalTectonicPrefetchHits + TotalTectonicMisses;
+        double TotalTectonicPrefetchHitRate = TotalTectonicWaits == 0 ? 0 : (double) TotalTectonicPrefetchHits / TotalTectonicWaits;
+        double TotalTectonicLockContention = TotalTectonicLockAcquisitions == 0 ? 0 : (double) TotalTectonicLockContended / TotalTectonicLockAcquisitions;
         Iris.info("-------------------------");
         Iris.info(C.DARK_PURPLE + "Engine Status");
         Iris.info(C.DARK_PURPLE + "Total Loaded Chunks: " + C.LIGHT_PURPLE + TotalLoadedChunks);
@@ -109,9 +130,13 @@ public class CommandDeveloper implements DecreeExecutor {
         Iris.info(C.DARK_PURPLE + "Tectonic Total Plates: " + C.LIGHT_PURPLE + TotalTectonicPlates);
         Iris.info(C.DARK_PURPLE + "Tectonic Active Plates: " + C.LIGHT_PURPLE + TotalNotQueuedTectonicPlates);
         Iris.info(C.DARK_PURPLE + "Tectonic ToUnload: " + C.LIGHT_PURPLE + TotalQueuedTectonicPlates);
+        Iris.info(C.DARK_PURPLE + "Tectonic Memory: " + C.LIGHT_PURPLE + Form.memSize(TotalTectonicWeight, 1) + " / " + Form.memSize(IrisEngineSVC.getTectonicBudget(), 1));
+        Iris.info(C.DARK_PURPLE + "Tectonic Hit Rate: " + C.LIGHT_PURPLE + Form.pc(TotalTectonicHitRate));
+        Iris.info(C.DARK_PURPLE + "Tectonic Prefetch Hit Rate: " + C.LIGHT_PURPLE + Form.pc(TotalTectonicPrefetchHitRate));
+        Iris.info(C.DARK_PURPLE + "Tectonic Lock Contention: " + C.LIGHT_PURPLE + Form.pc(TotalTectonicLockContention) + " (" + Form.duration(TotalTectonicLockWait / 1_000_000D, 0) + " waited)");
         Iris.info(C.DARK_PURPLE + "Lowest Tectonic Unload Duration: " + C.LIGHT_PURPLE + Form.duration(lowestUnloadDuration));
         Iris.info(C.DARK_PURPLE + "Highest Tectonic Unload Duration: " + C.LIGHT_PURPLE + Form.duration(highestUnloadDuration));
-        Iris.info(C.DARK_PURPLE + "Cache Size: " + C.LIGHT_PURPLE + Form.f(IrisData.cacheSize()));
+        Iris.info(C.DARK_PURPLE + "Cache Size: " + C.LIGHT_PURPLE + Form.f(IrisData.cacheSize()) + " (" + Form.memSize(IrisData.cacheBytes(), 1) + ")");
         Iris.info("-------------------------");
     }
 
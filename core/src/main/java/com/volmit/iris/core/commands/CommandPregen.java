@@ -70,6 +70,49 @@ public class CommandPregen implements DecreeExecutor {
         }
     }
 
+    @Decree(description = "Pregenerate an unloaded world without loading it, writing region files directly")
+    public void headless(
+            @Param(description = "The radius of the pregen in blocks", aliases = "size")
+            int radius,
+            @Param(description = "The name of the unloaded world to pregen")
+            String world,
+            @Param(aliases = "middle", description = "The center location of the pregen", defaultValue = "0,0")
+            Vector center,
+            @Param(description = "The dimension of the world, only needed if its pack has more than one", defaultValue = "auto")
+            String dimension
+    ) {
+        try {
+            File folder = new File(Bukkit.getWorldContainer(), world);
+
+            if (!new File(folder, "iris/pack").isDirectory()) {
+                sender().sendMessage(C.RED + world + " is not an Iris world.");
+                return;
+            }
+
+            if (Bukkit.getWorld(world) != null) {
+                sender().sendMessage(C.RED + world + " is loaded, unload it before a headless pregen.");
+                return;
+            }
+
+            radius = Math.max(radius, 1024);
+            int w = (radius >> 9 + 1) * 2;
+            IrisToolbelt.pregenerateHeadless(PregenTask
+                    .builder()
+                    .center(new Position2(center.getBlockX() >> 9, center.getBlockZ() >> 9))
+                    .gui(true)
+                    .width(w)
+                    .height(w)
+                    .build(), folder, dimension.equalsIgnoreCase("auto") ? null : dimension);
+            String msg = C.GREEN + "Headless pregen started in " + C.GOLD + world + C.GREEN + " of " + C.GOLD + (radius * 2) + C.GREEN + " by " + C.GOLD + (radius * 2) + C.GREEN + " blocks from " + C.GOLD + center.getX() + "," + center.getZ();
+            sender().sendMessage(msg);
+            Iris.info(msg);
+        } catch (Throwable e) {
+            sender().sendMessage(C.RED + "Epic fail. See console.");
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+    }
+
     @Decree(description = "Stop the active pregeneration task", aliases = "x")
     public void stop() {
         if (PregeneratorJob.shutdownInstance()) {
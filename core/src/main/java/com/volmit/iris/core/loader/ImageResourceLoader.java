@@ -23,7 +23,6 @@ import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.IrisImage;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
-import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 
 import javax.imageio.ImageIO;
@@ -34,7 +33,12 @@ import java.util.Set;
 public class ImageResourceLoader extends ResourceLoader<IrisImage> {
     public ImageResourceLoader(File root, IrisData idm, String folderName, String resourceTypeName) {
         super(root, idm, folderName, resourceTypeName, IrisImage.class);
-        loadCache = new KCache<>(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheSize());
+        loadCache = createCache(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheMB());
+    }
+
+    @Override
+    protected long weigh(IrisImage t) {
+        return 256 + (t.getWidth() * (long) t.getHeight() * 4L);
     }
 
     public boolean supportsSchemas() {
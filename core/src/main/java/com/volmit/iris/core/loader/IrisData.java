@@ -33,6 +33,7 @@ import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.IrisContext;
 import com.volmit.iris.util.format.C;
+import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.parallel.MultiBurst;
@@ -107,8 +108,20 @@ public class IrisData implements ExclusionStrategy, TypeAdapterFactory {
         return m;
     }
 
+    public static long cacheBytes() {
+        long m = 0;
+        for (IrisData i : dataLoaders.values()) {
+            for (ResourceLoader<?> j : i.getLoaders().values()) {
+                m += j.getCacheBytes();
+            }
+        }
+
+        return m;
+    }
+
     private static void printData(ResourceLoader<?> rl) {
-        Iris.warn("  " + rl.getResourceTypeName() + " @ /" + rl.getFolderName() + ": Cache=" + rl.getLoadCache().getSize() + " Folders=" + rl.getFolders().size());
+        Iris.warn("  " + rl.getResourceTypeName() + " @ /" + rl.getFolderName() + ": Cache=" + rl.getLoadCache().getSize()
+                + " (" + Form.memSize(rl.getCacheBytes(), 1) + ", " + Form.pc(rl.getHitRate(), 1) + " hits) Folders=" + rl.getFolders().size());
     }
 
     public static IrisObject loadAnyObject(String key) {
@@ -309,6 +322,7 @@ public class IrisData implements ExclusionStrategy, TypeAdapterFactory {
 
     public synchronized void hotloaded() {
         possibleSnippets = new KMap<>();
+        IrisObjectVariant.invalidate();
         builder = new GsonBuilder()
                 .addDeserializationExclusionStrategy(this)
                 .addSerializationExclusionStrategy(this)
@@ -23,7 +23,6 @@ import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.matter.IrisMatterObject;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
-import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 
 import java.io.File;
@@ -33,7 +32,12 @@ public class MatterObjectResourceLoader extends ResourceLoader<IrisMatterObject>
 
     public MatterObjectResourceLoader(File root, IrisData idm, String folderName, String resourceTypeName) {
         super(root, idm, folderName, resourceTypeName, IrisMatterObject.class);
-        loadCache = new KCache<>(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheSize());
+        loadCache = createCache(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheMB());
+    }
+
+    @Override
+    protected long weigh(IrisMatterObject t) {
+        return 256 + t.getMatter().getWeight();
     }
 
     public boolean supportsSchemas() {
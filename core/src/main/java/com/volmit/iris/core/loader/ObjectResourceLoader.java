@@ -23,7 +23,6 @@ import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
-import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 
 import java.io.File;
@@ -31,7 +30,12 @@ import java.io.File;
 public class ObjectResourceLoader extends ResourceLoader<IrisObject> {
     public ObjectResourceLoader(File root, IrisData idm, String folderName, String resourceTypeName) {
         super(root, idm, folderName, resourceTypeName, IrisObject.class);
-        loadCache = new KCache<>(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheSize());
+        loadCache = createCache(this::loadRaw, IrisSettings.get().getPerformance().getObjectLoaderCacheMB());
+    }
+
+    @Override
+    protected long weigh(IrisObject t) {
+        return t.getWeight();
     }
 
     public boolean supportsSchemas() {
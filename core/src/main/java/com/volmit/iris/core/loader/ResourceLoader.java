@@ -18,6 +18,7 @@
 
 package com.volmit.iris.core.loader;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.google.common.util.concurrent.AtomicDouble;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
@@ -59,6 +60,7 @@ import java.util.zip.GZIPOutputStream;
 public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
     public static final AtomicDouble tlt = new AtomicDouble(0);
     private static final int CACHE_SIZE = 100000;
+    private static final long JSON_EXPANSION = 4;
     protected final AtomicReference<KList<File>> folderCache;
     protected KSet<String> firstAccess;
     protected File root;
@@ -83,11 +85,36 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
         this.resourceTypeName = resourceTypeName;
         this.root = root;
         this.folderName = folderName;
-        loadCache = new KCache<>(this::loadRaw, IrisSettings.get().getPerformance().getResourceLoaderCacheSize());
+        loadCache = createCache(this::loadRaw, IrisSettings.get().getPerformance().getResourceLoaderCacheMB());
         Iris.debug("Loader<" + C.GREEN + resourceTypeName + C.LIGHT_PURPLE + "> created in " + C.RED + "IDM/" + manager.getId() + C.LIGHT_PURPLE + " on " + C.GRAY + manager.getDataFolder().getPath());
         Iris.service(PreservationSVC.class).registerCache(this);
     }
 
+    /**
+     * Create a load cache bounded by the estimated retained size of its resources. Every
+     * resource is weighed through {@link #weigh(IrisRegistrant)} when it is cached.
+     *
+     * @param loader    the loader
+     * @param megabytes the maximum size in megabytes
+     * @return the cache
+     */
+    protected KCache<String, T> createCache(CacheLoader<String, T> loader, int megabytes) {
+        return new KCache<>(loader, Math.max(megabytes, 1) * 1024L * 1024L,
+                (k, v) -> (int) Math.min(Integer.MAX_VALUE, weigh(v)));
+    }
+
+    /**
+     * Estimate the retained heap size of a loaded resource. Json resources are weighed by
+     * the size of their file.
+     *
+     * @param t the resource
+     * @return the estimated size in bytes
+     */
+    protected long weigh(T t) {
+        File f = t.getLoadFile();
+        return 256 + (f == null ? 0 : f.length() * JSON_EXPANSION);
+    }
+
     public JSONObject buildSchema() {
         Iris.debug("Building Schema " + objectClass.getSimpleName() + " " + root.getPath());
         JSONObject o = new JSONObject();
@@ -454,6 +481,58 @@ public class ResourceLoader<T extends IrisRegistrant> implements MeteredCache {
         return loadCache.getSize();
     }
 
+    /**
+     * Weigh a cached resource again after its retained size changed
+     *
+     * @param key the load key
+     * @param t   the resource
+     */
+    public void reweigh(String key, T t) {
+        loadCache.reweigh(key, t);
+    }
+
+    /**
+     * @return the estimated retained size of all cached resources in bytes
+     */
+    public long getCacheBytes() {
+        return loadCache.getWeightedSize();
+    }
+
+    @Override
+    public double getUsage() {
+        return loadCache.getUsage();
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return loadCache.isWeighted();
+    }
+
+    @Override
+    public long getWeightedSize() {
+        return loadCache.getWeightedSize();
+    }
+
+    @Override
+    public long getHitCount() {
+        return loadCache.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return loadCache.getMissCount();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loadCache.getLoadCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return loadCache.getEvictionCount();
+    }
+
     @Override
     public KCache<?, ?> getRawCache() {
         return loadCache;
@@ -33,6 +33,7 @@ import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.J;
 import com.volmit.iris.util.scheduling.Looper;
 
+import java.io.File;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -62,9 +63,15 @@ public class IrisPregenerator {
     private final KSet<Position2> net;
     private final ChronoLatch cl;
     private final ChronoLatch saveLatch = new ChronoLatch(30000);
+    private final File worldFolder;
+    private final PregenJournal journal;
+    private final AtomicInteger resumed;
 
     public IrisPregenerator(PregenTask task, PregeneratorMethod generator, PregenListener listener) {
         this.listener = listenify(listener);
+        worldFolder = generator.getWorldFolder();
+        journal = worldFolder == null ? null : new PregenJournal(new File(worldFolder, "iris/pregen.journal"));
+        resumed = new AtomicInteger(0);
         cl = new ChronoLatch(5000);
         generatedRegions = new KSet<>();
         this.shutdown = new AtomicBoolean(false);
@@ -124,7 +131,7 @@ public class IrisPregenerator {
     private long computeETA() {
         return (long) (totalChunks.get() > 1024 ? // Generated chunks exceed 1/8th of total?
                 // If yes, use smooth function (which gets more accurate over time since its less sensitive to outliers)
-                ((totalChunks.get() - generated.get()) * ((double) (M.ms() - startTime.get()) / (double) generated.get())) :
+                ((totalChunks.get() - generated.get()) * ((double) (M.ms() - startTime.get()) / (double) Math.max(generated.get() - resumed.get(), 1))) :
                 // If no, use quick function (which is less accurate over time but responds better to the initial delay)
                 ((totalChunks.get() - generated.get()) / chunksPerSecond.getAverage()) * 1000
         );
@@ -137,6 +144,7 @@ public class IrisPregenerator {
 
     public void start() {
         init();
+        resume();
         ticker.start();
         checkRegions();
         task.iterateRegions((x, z) -> visitRegion(x, z, true));
@@ -149,6 +157,59 @@ public class IrisPregenerator {
         }
     }
 
+    /**
+     * Pick up the progress of an earlier run from the journal. Complete regions are skipped
+     * entirely, partially generated regions only skip their generated chunks. Regions whose
+     * region file is gone are dropped from the journal and generated again.
+     */
+    private void resume() {
+        if (journal == null) {
+            return;
+        }
+
+        AtomicInteger regions = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+        task.iterateRegions((x, z) -> {
+            int chunks = journal.getGeneratedChunks(x, z);
+
+            if (chunks > 0 && !hasRegionFile(x, z)) {
+                journal.forgetRegion(x, z);
+                missing.incrementAndGet();
+                return;
+            }
+
+            if (chunks == 1024) {
+                generatedRegions.add(new Position2(x, z));
+                regions.incrementAndGet();
+            }
+
+            resumed.addAndGet(chunks);
+        });
+
+        if (resumed.get() > 0) {
+            generated.addAndGet(resumed.get());
+            generatedLast.set(generated.get());
+            generatedLastMinute.set(generated.get());
+            Iris.info("Resuming pregen with " + Form.f(regions.get()) + " complete regions and " + Form.f(resumed.get()) + " generated chunks");
+        }
+
+        if (missing.get() > 0) {
+            Iris.warn("Regenerating " + Form.f(missing.get()) + " journaled regions which are missing their region file");
+        }
+    }
+
+    private boolean hasRegionFile(int x, int z) {
+        String name = "r." + x + "." + z + ".mca";
+
+        for (String i : new String[]{"region", "DIM-1/region", "DIM1/region"}) {
+            if (new File(worldFolder, i + "/" + name).exists()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private void checkRegions() {
         task.iterateRegions(this::checkRegion);
     }
@@ -163,6 +224,9 @@ public class IrisPregenerator {
         generator.close();
         ticker.interrupt();
         listener.onClose();
+        if (journal != null) {
+            journal.save();
+        }
         Mantle mantle = getMantle();
         if (mantle != null) {
             mantle.trim(0, 0);
@@ -186,8 +250,15 @@ public class IrisPregenerator {
         }
 
         currentGeneratorMethod.set(generator.getMethod(x, z));
+        Mantle mantle = getMantle();
+        if (mantle != null) {
+            mantle.prefetch(x, z, 1);
+        }
+
+        // Partially journaled regions go chunk by chunk so their generated chunks are skipped
+        boolean partial = journal != null && journal.getGeneratedChunks(x, z) > 0;
         boolean hit = false;
-        if (generator.supportsRegions(x, z, listener) && regions) {
+        if (generator.supportsRegions(x, z, listener) && regions && !partial) {
             hit = true;
             listener.onRegionGenerating(x, z);
             generator.generateRegion(x, z, listener);
@@ -199,6 +270,10 @@ public class IrisPregenerator {
                     J.sleep(50);
                 }
 
+                if (journal != null && journal.isChunkGenerated(xx, zz)) {
+                    return;
+                }
+
                 generator.generateChunk(xx, zz, listener);
             });
         }
@@ -207,8 +282,12 @@ public class IrisPregenerator {
             listener.onRegionGenerated(x, z);
 
             if (saveLatch.flip()) {
+                byte[] checkpoint = journal != null ? journal.snapshot() : null;
                 listener.onSaving();
                 generator.save();
+                if (checkpoint != null) {
+                    journal.save(checkpoint);
+                }
             }
 
             generatedRegions.add(pos);
@@ -248,6 +327,9 @@ public class IrisPregenerator {
             public void onChunkGenerated(int x, int z) {
                 listener.onChunkGenerated(x, z);
                 generated.addAndGet(1);
+                if (journal != null) {
+                    journal.markChunk(x, z);
+                }
             }
 
             @Override
@@ -0,0 +1,272 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.pregenerator;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KMap;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persistent pregen progress of a world. Every region keeps a 1024 bit bitmap of its
+ * generated chunks, fully generated regions are stored as just their coordinates. The
+ * journal is rewritten through a temporary file so a crash keeps the previous checkpoint.
+ */
+public class PregenJournal {
+    private static final int MAGIC = 0x49504A4E;
+    private static final int VERSION = 1;
+    private static final long[] COMPLETE = full();
+
+    @Getter
+    private final File file;
+    private final KMap<Long, long[]> regions;
+
+    /**
+     * Open the journal at the given file, reading the last checkpoint if there is one
+     *
+     * @param file the journal file
+     */
+    public PregenJournal(File file) {
+        this.file = file;
+        this.regions = new KMap<>();
+
+        if (file.exists()) {
+            try (DataInputStream din = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                read(din);
+            } catch (Throwable e) {
+                Iris.error("Failed to read the pregen journal " + file.getPath() + ", starting over.");
+                Iris.reportError(e);
+                regions.clear();
+            }
+        }
+    }
+
+    private static long[] full() {
+        long[] l = new long[16];
+        Arrays.fill(l, -1L);
+        return l;
+    }
+
+    private void read(DataInputStream din) throws IOException {
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Not a pregen journal");
+        }
+
+        int version = din.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported pregen journal version " + version);
+        }
+
+        int count = din.readInt();
+        for (int i = 0; i < count; i++) {
+            int x = din.readInt();
+            int z = din.readInt();
+
+            if (din.readBoolean()) {
+                regions.put(Cache.key(x, z), COMPLETE);
+                continue;
+            }
+
+            long[] bits = new long[16];
+            for (int j = 0; j < bits.length; j++) {
+                bits[j] = din.readLong();
+            }
+
+            regions.put(Cache.key(x, z), bits);
+        }
+    }
+
+    /**
+     * Record a generated chunk
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     */
+    public synchronized void markChunk(int x, int z) {
+        long key = Cache.key(x >> 5, z >> 5);
+        long[] bits = regions.get(key);
+
+        if (bits == COMPLETE) {
+            return;
+        }
+
+        if (bits == null) {
+            bits = new long[16];
+            regions.put(key, bits);
+        }
+
+        int i = ((z & 31) << 5) | (x & 31);
+        bits[i >> 6] |= 1L << (i & 63);
+
+        if (isFull(bits)) {
+            regions.put(key, COMPLETE);
+        }
+    }
+
+    /**
+     * Drop everything recorded for a region, so it is generated again
+     *
+     * @param x the region x
+     * @param z the region z
+     */
+    public synchronized void forgetRegion(int x, int z) {
+        regions.remove(Cache.key(x, z));
+    }
+
+    /**
+     * Check if a chunk was generated
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     * @return true if the chunk is in the journal
+     */
+    public synchronized boolean isChunkGenerated(int x, int z) {
+        long[] bits = regions.get(Cache.key(x >> 5, z >> 5));
+
+        if (bits == null) {
+            return false;
+        }
+
+        int i = ((z & 31) << 5) | (x & 31);
+        return (bits[i >> 6] & (1L << (i & 63))) != 0;
+    }
+
+    /**
+     * Check if every chunk of a region was generated
+     *
+     * @param x the region x
+     * @param z the region z
+     * @return true if the region is complete
+     */
+    public synchronized boolean isRegionComplete(int x, int z) {
+        return regions.get(Cache.key(x, z)) == COMPLETE;
+    }
+
+    /**
+     * Count the generated chunks of a region
+     *
+     * @param x the region x
+     * @param z the region z
+     * @return the amount of generated chunks (0-1024)
+     */
+    public synchronized int getGeneratedChunks(int x, int z) {
+        long[] bits = regions.get(Cache.key(x, z));
+
+        if (bits == null) {
+            return 0;
+        }
+
+        int c = 0;
+        for (long i : bits) {
+            c += Long.bitCount(i);
+        }
+
+        return c;
+    }
+
+    private static boolean isFull(long[] bits) {
+        for (long i : bits) {
+            if (i != -1L) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Serialize the current progress. Take the snapshot before saving the world so the
+     * checkpoint never claims chunks which are not on disk yet.
+     *
+     * @return the serialized journal
+     */
+    public synchronized byte[] snapshot() {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 + (regions.size() * 16));
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeInt(MAGIC);
+            dos.writeByte(VERSION);
+            dos.writeInt(regions.size());
+
+            for (Long i : regions.keySet()) {
+                long[] bits = regions.get(i);
+                dos.writeInt(Cache.keyX(i));
+                dos.writeInt(Cache.keyZ(i));
+                dos.writeBoolean(bits == COMPLETE);
+
+                if (bits != COMPLETE) {
+                    for (long j : bits) {
+                        dos.writeLong(j);
+                    }
+                }
+            }
+
+            dos.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the current progress to disk. Chunks cannot be marked while it is written,
+     * so the file never holds a half updated region.
+     */
+    public synchronized void save() {
+        save(snapshot());
+    }
+
+    /**
+     * Write a snapshot to disk through a temporary file and an atomic rename
+     *
+     * @param snapshot the snapshot
+     */
+    public synchronized void save(byte[] snapshot) {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try {
+            file.getParentFile().mkdirs();
+            try (FileChannel fc = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+                while (buffer.hasRemaining()) {
+                    fc.write(buffer);
+                }
+                fc.force(true);
+            }
+
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Iris.error("Failed to save the pregen journal " + file.getPath());
+            Iris.reportError(e);
+        }
+    }
+}
@@ -19,6 +19,9 @@
 package com.volmit.iris.core.pregenerator;
 
 import com.volmit.iris.util.mantle.Mantle;
+import org.bukkit.World;
+
+import java.io.File;
 
 /**
  * Represents something that is capable of generating in chunks or regions, or both
@@ -77,4 +80,23 @@ public interface PregeneratorMethod {
     void generateChunk(int x, int z, PregenListener listener);
 
     Mantle getMantle();
+
+    /**
+     * Get the world this method generates
+     *
+     * @return the world or null if this method does not generate into a world
+     */
+    default World getWorld() {
+        return null;
+    }
+
+    /**
+     * Get the folder of the world this method generates, the pregen journal is kept in it
+     *
+     * @return the world folder or null if this method does not generate into a world
+     */
+    default File getWorldFolder() {
+        World world = getWorld();
+        return world == null ? null : world.getWorldFolder();
+    }
 }
@@ -70,4 +70,9 @@ public class AsyncOrMedievalPregenMethod implements PregeneratorMethod {
     public Mantle getMantle() {
         return method.getMantle();
     }
+
+    @Override
+    public World getWorld() {
+        return method.getWorld();
+    }
 }
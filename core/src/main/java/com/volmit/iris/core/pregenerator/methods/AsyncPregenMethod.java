@@ -140,4 +140,9 @@ public class AsyncPregenMethod implements PregeneratorMethod {
 
         return null;
     }
+
+    @Override
+    public World getWorld() {
+        return world;
+    }
 }
@@ -0,0 +1,285 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.core.pregenerator.methods;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.core.pregenerator.PregenListener;
+import com.volmit.iris.core.pregenerator.PregenTask;
+import com.volmit.iris.core.pregenerator.PregeneratorMethod;
+import com.volmit.iris.engine.IrisEngine;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.data.chunk.MCATerrainChunk;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.EngineTarget;
+import com.volmit.iris.engine.object.IrisDimension;
+import com.volmit.iris.engine.object.IrisWorld;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.nbt.io.NBTUtil;
+import com.volmit.iris.util.nbt.mca.MCAFile;
+import com.volmit.iris.util.nbt.mca.NBTWorld;
+import com.volmit.iris.util.nbt.tag.CompoundTag;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+
+import java.io.File;
+
+/**
+ * Generates an unloaded Iris world without a server. Chunks are generated by the engine into
+ * plain hunks on all cores and written straight into region files. The mantle is kept by the
+ * engine as usual, so objects, tiles and updates are applied when a chunk is first loaded.
+ * <p>
+ * Chunks are written in the legacy layout which the server upgrades on load. Region files
+ * which already exist are never touched.
+ */
+public class HeadlessPregenMethod implements PregeneratorMethod {
+    @Getter
+    private final Engine engine;
+    private final File worldFolder;
+    private final NBTWorld writer;
+    private final MultiBurst burst;
+    private final KMap<Long, Boolean> written;
+    private final int minHeight;
+    private final int height;
+
+    /**
+     * Open an unloaded Iris world for headless generation
+     *
+     * @param worldFolder the world folder, it must contain an installed pack in iris/pack
+     * @param dimension   the dimension key or null to use the only dimension of the pack
+     * @param threads     the amount of threads to generate with
+     */
+    public HeadlessPregenMethod(File worldFolder, String dimension, int threads) {
+        if (Bukkit.getWorld(worldFolder.getName()) != null) {
+            throw new IllegalStateException("The world " + worldFolder.getName() + " is loaded, unload it first!");
+        }
+
+        this.worldFolder = worldFolder;
+        this.engine = createEngine(worldFolder, dimension);
+        this.writer = new NBTWorld(worldFolder);
+        this.burst = new MultiBurst("Iris Headless Pregen", Thread.MIN_PRIORITY, threads);
+        this.written = new KMap<>();
+        this.minHeight = engine.getWorld().minHeight();
+        this.height = engine.getHeight();
+    }
+
+    private static Engine createEngine(File worldFolder, String dimension) {
+        IrisData data = IrisData.get(new File(worldFolder, "iris/pack"));
+
+        if (dimension == null) {
+            String[] keys = data.getDimensionLoader().getPossibleKeys();
+
+            if (keys.length != 1) {
+                throw new IllegalArgumentException("Cannot pick a dimension for " + worldFolder.getName() + ", found " + keys.length + " in iris/pack");
+            }
+
+            dimension = keys[0];
+        }
+
+        IrisDimension dim = data.getDimensionLoader().load(dimension);
+
+        if (dim == null) {
+            throw new IllegalArgumentException("Missing dimension " + dimension + " in " + data.getDataFolder().getPath());
+        }
+
+        IrisWorld world = IrisWorld.builder()
+                .name(worldFolder.getName())
+                .seed(readSeed(worldFolder))
+                .environment(dim.getEnvironment())
+                .worldFolder(worldFolder)
+                .minHeight(dim.getMinHeight())
+                .maxHeight(dim.getMaxHeight())
+                .build();
+
+        return new IrisEngine(new EngineTarget(world, dim, data), false);
+    }
+
+    /**
+     * Read the seed from level.dat. The engine restores its own seed from the engine data
+     * once the world has been generated before, this only matters for new worlds.
+     */
+    private static long readSeed(File worldFolder) {
+        File level = new File(worldFolder, "level.dat");
+
+        if (level.exists()) {
+            try {
+                CompoundTag root = (CompoundTag) NBTUtil.read(level).getTag();
+                CompoundTag data = root.getCompoundTag("Data");
+
+                if (data.containsKey("WorldGenSettings")) {
+                    return data.getCompoundTag("WorldGenSettings").getLong("seed");
+                }
+
+                if (data.containsKey("RandomSeed")) {
+                    return data.getLong("RandomSeed");
+                }
+            } catch (Throwable e) {
+                Iris.reportError(e);
+                Iris.warn("Failed to read the seed from " + level.getPath());
+            }
+        }
+
+        return 1337;
+    }
+
+    @Override
+    public void init() {
+
+    }
+
+    @Override
+    public void close() {
+        burst.close();
+        writer.close();
+        engine.close();
+    }
+
+    @Override
+    public void save() {
+        writer.save();
+        engine.getMantle().getMantle().saveAll();
+    }
+
+    @Override
+    public boolean supportsRegions(int x, int z, PregenListener listener) {
+        return true;
+    }
+
+    @Override
+    public String getMethod(int x, int z) {
+        return "Headless";
+    }
+
+    @Override
+    public void generateRegion(int x, int z, PregenListener listener) {
+        if (isForeign(x, z)) {
+            Iris.warn("Skipping region " + x + " " + z + ", it already exists on disk");
+            PregenTask.iterateRegion(x, z, (xx, zz) -> skip(xx, zz, listener));
+            listener.onRegionSkipped(x, z);
+            return;
+        }
+
+        MCAFile mca = open(x, z);
+        BurstExecutor e = burst.burst(1024);
+        PregenTask.iterateRegion(x, z, (xx, zz) -> e.queue(() -> generate(mca, xx, zz, listener)));
+        e.complete();
+        writer.queueSaveUnload(x, z);
+    }
+
+    @Override
+    public void generateChunk(int x, int z, PregenListener listener) {
+        if (isForeign(x >> 5, z >> 5)) {
+            skip(x, z, listener);
+            return;
+        }
+
+        generate(open(x >> 5, z >> 5), x, z, listener);
+    }
+
+    /**
+     * Check if a region file was on disk before this method wrote to it. Regions written
+     * here show up on disk once they are saved, their remaining chunks must still be generated.
+     */
+    private boolean isForeign(int x, int z) {
+        return !written.containsKey(Cache.key(x, z)) && writer.getRegionFile(x, z).exists();
+    }
+
+    private MCAFile open(int x, int z) {
+        written.put(Cache.key(x, z), true);
+        return writer.getMCA(x, z);
+    }
+
+    /**
+     * Count a chunk of an existing region as done, it is left as it is on disk
+     */
+    private void skip(int x, int z, PregenListener listener) {
+        listener.onChunkExistsInRegionGen(x, z);
+        listener.onChunkGenerated(x, z);
+    }
+
+    private void generate(MCAFile mca, int x, int z, PregenListener listener) {
+        listener.onChunkGenerating(x, z);
+        Hunk<BlockData> blocks = Hunk.newArrayHunk(16, height, 16);
+        Hunk<Biome> biomes = Hunk.newArrayHunk(16, height, 16);
+
+        try {
+            engine.generate(x << 4, z << 4, blocks, biomes, false);
+        } catch (Throwable e) {
+            Iris.reportError(e);
+            Iris.error("Failed to generate chunk " + x + " " + z);
+            return;
+        }
+
+        MCATerrainChunk tc;
+        synchronized (mca) {
+            tc = MCATerrainChunk.builder()
+                    .writer(writer)
+                    .ox(x << 4)
+                    .oz(z << 4)
+                    .minHeight(minHeight)
+                    .maxHeight(minHeight + height)
+                    .mcaChunk(writer.getNewChunk(mca, x, z))
+                    .build();
+        }
+
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < 16; j++) {
+                for (int k = 0; k < 16; k++) {
+                    BlockData b = blocks.getRaw(j, i, k);
+
+                    if (b != null && !B.isAir(b)) {
+                        tc.setBlock(j, i + minHeight, k, b);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < height; i += 4) {
+            for (int j = 0; j < 16; j += 4) {
+                for (int k = 0; k < 16; k += 4) {
+                    Biome b = biomes.getRaw(j, i, k);
+
+                    if (b != null && b != Biome.CUSTOM) {
+                        tc.setBiome(j, i + minHeight, k, b);
+                    }
+                }
+            }
+        }
+
+        listener.onChunkGenerated(x, z);
+    }
+
+    @Override
+    public Mantle getMantle() {
+        return engine.isClosed() ? null : engine.getMantle().getMantle();
+    }
+
+    @Override
+    public File getWorldFolder() {
+        return worldFolder;
+    }
+}
@@ -135,4 +135,9 @@ public class MedievalPregenMethod implements PregeneratorMethod {
 
         return null;
     }
+
+    @Override
+    public World getWorld() {
+        return world;
+    }
 }
@@ -36,6 +36,7 @@ public class IrisEngineSVC implements IrisService {
     public boolean isServerShuttingDown = false;
     public boolean isServerLoaded = false;
     private static final AtomicInteger tectonicLimit = new AtomicInteger(30);
+    private static final AtomicLong tectonicBudget = new AtomicLong(0);
     private ReentrantLock lastUseLock;
     private KMap<World, Long> lastUse;
     private List<World> IrisWorlds;
@@ -77,6 +78,7 @@ public class IrisEngineSVC implements IrisService {
             tectonicLimit.getAndAdd(1);
             t = t - 200;
         }
+        tectonicBudget.set(IrisSettings.get().getPerformance().getMantleCacheBudgetBytes());
         this.setup();
         this.TrimLogic();
         this.UnloadLogic();
@@ -107,6 +109,10 @@ public class IrisEngineSVC implements IrisService {
         return tectonicLimit.get();
     }
 
+    public static long getTectonicBudget() {
+        return tectonicBudget.get();
+    }
+
     @EventHandler
     public void onWorldUnload(WorldUnloadEvent event) {
         updateWorlds();
@@ -217,7 +223,7 @@ public class IrisEngineSVC implements IrisService {
                     try {
                         Engine engine = supplier.get();
                         if (engine != null) {
-                            engine.getMantle().trim(tectonicLimit.get() / lastUse.size());
+                            engine.getMantle().trim(tectonicBudget.get() / Math.max(lastUse.size(), 1));
                         }
                     } catch (Throwable e) {
                         Iris.reportError(e);
@@ -52,8 +52,12 @@ public class PreservationSVC implements IrisService {
     }
 
     public void printCaches() {
-        long s = caches.stream().filter(i -> !i.isClosed()).mapToLong(MeteredCache::getSize).sum();
-        long m = caches.stream().filter(i -> !i.isClosed()).mapToLong(MeteredCache::getMaxSize).sum();
+        long s = 0;
+        long m = 0;
+        long b = 0;
+        long mb = 0;
+        int counted = 0;
+        int weighted = 0;
         double p = 0;
         double mf = 0;
 
@@ -62,13 +66,25 @@ public class PreservationSVC implements IrisService {
                 continue;
             }
 
+            // Weighted caches are bounded in bytes, their entry counts don't add up with the others
+            if (i.isWeighted()) {
+                b += i.getWeightedSize();
+                mb += i.getMaxSize();
+                weighted++;
+            } else {
+                s += i.getSize();
+                m += i.getMaxSize();
+                counted++;
+            }
+
             mf++;
             p += i.getUsage();
         }
 
         mf = mf == 0 ? 1 : mf;
 
-        Iris.info("Cached " + Form.f(s) + " / " + Form.f(m) + " (" + Form.pc(p / mf) + ") from " + caches.size() + " Caches");
+        Iris.info("Cached " + Form.f(s) + " / " + Form.f(m) + " entries from " + counted + " Caches and "
+                + Form.memSize(b, 1) + " / " + Form.memSize(mb, 1) + " from " + weighted + " weighted Caches (" + Form.pc(p / mf) + ")");
     }
 
     public void dereference() {
@@ -24,6 +24,7 @@ import com.volmit.iris.core.gui.PregeneratorJob;
 import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.core.pregenerator.PregenTask;
 import com.volmit.iris.core.pregenerator.PregeneratorMethod;
+import com.volmit.iris.core.pregenerator.methods.HeadlessPregenMethod;
 import com.volmit.iris.core.pregenerator.methods.HybridPregenMethod;
 import com.volmit.iris.core.service.StudioSVC;
 import com.volmit.iris.engine.framework.Engine;
@@ -173,6 +174,21 @@ public class IrisToolbelt {
         return pregenerate(task, new HybridPregenMethod(world, IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism())), null);
     }
 
+    /**
+     * Start a headless pregenerator task on an unloaded world. Chunks are written straight
+     * into the region files of the world without a server loading them.
+     *
+     * @param task        the scheduled task
+     * @param worldFolder the folder of the unloaded world
+     * @param dimension   the dimension key or null to use the only dimension of the pack
+     * @return the pregenerator job (already started)
+     */
+    public static PregeneratorJob pregenerateHeadless(PregenTask task, File worldFolder, String dimension) {
+        HeadlessPregenMethod method = new HeadlessPregenMethod(worldFolder, dimension,
+                IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()));
+        return pregenerate(task, method, method.getEngine());
+    }
+
     /**
      * Evacuate all players from the world into literally any other world.
      * If there are no other worlds, kick them! Not the best but what's mine is mine sometimes...
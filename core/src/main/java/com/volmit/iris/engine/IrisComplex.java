@@ -29,6 +29,8 @@ import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.context.IrisContext;
 import com.volmit.iris.util.data.DataProvider;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.interpolation.IrisInterpolation.NoiseKey;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
@@ -49,6 +51,7 @@ import java.util.UUID;
 @ToString(exclude = "data")
 public class IrisComplex implements DataProvider {
     private static final BlockData AIR = Material.AIR.createBlockData();
+    private static final int BASE_HEIGHT_CACHE = 4096;
     private RNG rng;
     private double fluidHeight;
     private IrisData data;
@@ -84,6 +87,7 @@ public class IrisComplex implements DataProvider {
     private ProceduralStream<BlockData> fluidStream;
     private IrisBiome focusBiome;
     private IrisRegion focusRegion;
+    private KCache<Long, Integer> baseHeightCache;
 
     public IrisComplex(Engine engine) {
         this(engine, false);
@@ -112,8 +116,8 @@ public class IrisComplex implements DataProvider {
                 .getAllBiomes(this).forEach((b) -> b
                         .getGenerators()
                         .forEach((c) -> registerGenerator(c.getCachedGenerator(this)))));
-        overlayStream = ProceduralStream.ofDouble((x, z) -> 0.0D).waste("Overlay Stream");
-        engine.getDimension().getOverlayNoise().forEach(i -> overlayStream = overlayStream.add((x, z) -> i.get(rng, getData(), x, z)));
+        overlayStream = ProceduralStream.ofNoise((x, z) -> 0.0D).waste("Overlay Stream");
+        engine.getDimension().getOverlayNoise().forEach(i -> overlayStream = overlayStream.addNoise((x, z) -> i.get(rng, getData(), x, z)));
         rockStream = engine.getDimension().getRockPalette().getLayerGenerator(rng.nextParallelRNG(45), data).stream()
                 .select(engine.getDimension().getRockPalette().getBlockData(data)).waste("Rock Stream");
         fluidStream = engine.getDimension().getFluidPalette().getLayerGenerator(rng.nextParallelRNG(78), data).stream()
@@ -177,26 +181,34 @@ public class IrisComplex implements DataProvider {
                 bridgeStream.convertAware2D((t, x, z) -> inferredStreams.get(t).get(x, z))
                         .convertAware2D(this::implode)
                         .cache2D("baseBiomeStream", engine, cacheSize).waste("Base Biome Stream");
-        heightStream = ProceduralStream.of((x, z) -> {
+        heightStream = ProceduralStream.ofNoise((x, z) -> {
             IrisBiome b = focusBiome != null ? focusBiome : baseBiomeStream.get(x, z);
             return getHeight(engine, b, x, z, engine.getSeedManager().getHeight());
-        }, Interpolated.DOUBLE).cache2D("heightStream", engine, cacheSize).waste("Height Stream");
+        }).cacheDouble2D("heightStream", engine, cacheSize).waste("Height Stream");
         roundedHeighteightStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
-                .round().waste("Rounded Height Stream");
+                .round().cacheInt2D("roundedHeightStream", engine, cacheSize).waste("Rounded Height Stream");
         slopeStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
-                .slope(3).cache2D("slopeStream", engine, cacheSize).waste("Slope Stream");
+                .slope(3).cacheDouble2D("slopeStream", engine, cacheSize).waste("Slope Stream");
+        ProceduralStream<IrisRegion> contextRegionStream = regionStream.contextInjecting((c, xx, zz) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(xx, zz));
         trueBiomeStream = focusBiome != null ? ProceduralStream.of((x, y) -> focusBiome, Interpolated.of(a -> 0D,
                         b -> focusBiome))
                 .cache2D("trueBiomeStream-focus", engine, cacheSize) : heightStream
                 .convertAware2D((h, x, z) ->
-                        fixBiomeType(h, baseBiomeStream.get(x, z),
-                                regionStream.contextInjecting((c, xx, zz) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(xx, zz)).get(x, z), x, z, fluidHeight))
+                        fixBiomeType(h, baseBiomeStream.get(x, z), contextRegionStream.get(x, z), x, z, fluidHeight))
                 .cache2D("trueBiomeStream", engine, cacheSize).waste("True Biome Stream");
         trueBiomeDerivativeStream = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
                 .convert(IrisBiome::getDerivative).cache2D("trueBiomeDerivativeStream", engine, cacheSize).waste("True Biome Derivative Stream");
         heightFluidStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
-                .max(fluidHeight).cache2D("heightFluidStream", engine, cacheSize).waste("Height Fluid Stream");
-        maxHeightStream = ProceduralStream.ofDouble((x, z) -> height).waste("Max Height Stream");
+                .max(fluidHeight).cacheDouble2D("heightFluidStream", engine, cacheSize).waste("Height Fluid Stream");
+        maxHeightStream = ProceduralStream.ofNoise((x, z) -> height).waste("Max Height Stream");
+        int maxY = engine.getHeight() - 1;
+        baseHeightCache = new KCache<>((k) -> {
+            int x = Cache.keyX(k);
+            int z = Cache.keyZ(k);
+            int he = Math.max(0, Math.min(roundedHeighteightStream.get(x, z), maxY));
+            int hf = Math.max(he, (int) Math.round(Math.min(maxY, fluidHeight)));
+            return (he << 16) | hf;
+        }, BASE_HEIGHT_CACHE);
         terrainSurfaceDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.NONE)).cache2D("terrainSurfaceDecoration", engine, cacheSize).waste("Surface Decoration Stream");
         terrainCeilingDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
@@ -238,6 +250,21 @@ public class IrisComplex implements DataProvider {
         return null;
     }
 
+    /**
+     * Get the surface of a column straight from the height streams without generating the
+     * chunk. Heights are relative to the bottom of the world, like the terrain hunks.
+     *
+     * @param x     the block x
+     * @param z     the block z
+     * @param fluid if fluid should count as the surface
+     * @return the y of the highest terrain (or fluid) block
+     */
+    @BlockCoordinates
+    public int getBaseHeight(int x, int z, boolean fluid) {
+        int packed = baseHeightCache.get(Cache.key(x, z));
+        return fluid ? packed & 0xFFFF : packed >>> 16;
+    }
+
     private IrisRegion findRegion(IrisBiome focus, Engine engine) {
         for (IrisRegion i : engine.getDimension().getAllRegions(engine)) {
             if (i.getAllBiomeIds().contains(focus.getLoadKey())) {
@@ -357,7 +384,7 @@ public class IrisComplex implements DataProvider {
     }
 
     private double getHeight(Engine engine, IrisBiome b, double x, double z, long seed) {
-        return Math.max(Math.min(getInterpolatedHeight(engine, x, z, seed) + fluidHeight + overlayStream.get(x, z), engine.getHeight()), 0);
+        return Math.max(Math.min(getInterpolatedHeight(engine, x, z, seed) + fluidHeight + overlayStream.getDouble(x, z), engine.getHeight()), 0);
     }
 
     private void registerGenerator(IrisGenerator cachedGenerator) {
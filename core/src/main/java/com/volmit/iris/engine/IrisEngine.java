@@ -228,7 +228,7 @@ public class IrisEngine implements Engine {
                 int xx = x + (i << 4);
                 int zz = z + (z << 4);
                 getComplex().getTrueBiomeStream().get(xx, zz);
-                getComplex().getHeightStream().get(xx, zz);
+                getComplex().getHeightStream().getDouble(xx, zz);
             }
         }
     }
@@ -421,6 +421,7 @@ public class IrisEngine implements Engine {
         getWorldManager().close();
         getTarget().close();
         saveEngineData();
+        LocatorIndex.close(this);
         getMantle().close();
         getComplex().close();
         mode.close();
@@ -21,6 +21,7 @@ package com.volmit.iris.engine;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.loader.IrisData;
+import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedWorldManager;
 import com.volmit.iris.engine.object.*;
@@ -57,11 +58,10 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -77,6 +77,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     private final ChronoLatch cln;
     private final ChronoLatch chunkUpdater;
     private final ChronoLatch chunkDiscovery;
+    private final ChronoLatch platePrefetch;
     private double energy = 25;
     private int entityCount = 0;
     private long charge = 0;
@@ -84,6 +85,8 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     private int cooldown = 0;
     private List<Entity> precount = new KList<>();
     private KSet<Position2> injectBiomes = new KSet<>();
+    private KMap<UUID, Position2> lastPlayerPositions = new KMap<>();
+    private KMap<Long, ChunkMarkers> markerCache = new KMap<>();
 
     public IrisWorldManager() {
         super(null);
@@ -94,6 +97,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         looper = null;
         chunkUpdater = null;
         chunkDiscovery = null;
+        platePrefetch = null;
         id = -1;
     }
 
@@ -101,6 +105,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         super(engine);
         chunkUpdater = new ChronoLatch(3000);
         chunkDiscovery = new ChronoLatch(5000);
+        platePrefetch = new ChronoLatch(1000);
         cln = new ChronoLatch(60000);
         cl = new ChronoLatch(3000);
         ecl = new ChronoLatch(250);
@@ -118,6 +123,10 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
                     getEngine().getWorld().tryGetRealWorld();
                 }
 
+                if (getEngine().getWorld().hasRealWorld() && platePrefetch.flip()) {
+                    prefetchPlates();
+                }
+
                 if (!IrisSettings.get().getWorld().isMarkerEntitySpawningSystem() && !IrisSettings.get().getWorld().isAnbientEntitySpawningSystem()) {
                     return 3000;
                 }
@@ -148,6 +157,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
 
                     if (cln.flip()) {
                         engine.getEngineData().cleanup(getEngine());
+                        cleanupMarkers();
                     }
 
                     if (precount != null) {
@@ -181,6 +191,30 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         looper.start();
     }
 
+    /**
+     * Prefetch the Tectonic Plates around every player and ahead of the way they are moving
+     */
+    private void prefetchPlates() {
+        Mantle mantle = getEngine().getMantle().getMantle();
+        KMap<UUID, Position2> positions = new KMap<>();
+
+        for (Player i : getEngine().getWorld().realWorld().getPlayers()) {
+            Location l = i.getLocation();
+            Position2 pos = new Position2(l.getBlockX(), l.getBlockZ());
+            Position2 last = lastPlayerPositions.get(i.getUniqueId());
+            int x = pos.getX() >> 9;
+            int z = pos.getZ() >> 9;
+            positions.put(i.getUniqueId(), pos);
+            mantle.prefetch(x, z, 1);
+
+            if (last != null) {
+                mantle.prefetch(x, z, pos.getX() - last.getX(), pos.getZ() - last.getZ(), 2);
+            }
+        }
+
+        lastPlayerPositions = positions;
+    }
+
     private void discoverChunks() {
         var mantle = getEngine().getMantle().getMantle();
         for (Player i : getEngine().getWorld().realWorld().getPlayers()) {
@@ -498,6 +532,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         energy += 0.3;
         fixEnergy();
         getEngine().cleanupMantleChunk(e.getX(), e.getZ());
+        invalidateMarkers(e.getX(), e.getZ());
 
         if (generated) {
             //INMS.get().injectBiomesFromMantle(e, getMantle());
@@ -585,57 +620,151 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         });
     }
 
+    /**
+     * Get the spawners of the markers in a chunk. Markers come from a per chunk cache, the
+     * markers which need empty space above them are checked together in one main thread task
+     * and the ones that are obstructed are removed.
+     *
+     * @param c the chunk
+     * @return the marker positions (mantle height) with their spawners
+     */
     public Map<IrisPosition, KSet<IrisSpawner>> getSpawnersFromMarkers(Chunk c) {
         Map<IrisPosition, KSet<IrisSpawner>> p = new KMap<>();
-        Set<IrisPosition> b = new KSet<>();
-        getMantle().iterateChunk(c.getX(), c.getZ(), MatterMarker.class, (x, y, z, t) -> {
+        ChunkMarkers markers = getChunkMarkers(c.getX(), c.getZ());
+
+        if (markers.isEmpty()) {
+            return p;
+        }
+
+        boolean[] obstructed = findObstructedMarkers(c, markers);
+
+        for (int i = 0; i < markers.size(); i++) {
+            MarkerSpawners m = markers.get(i);
+
+            if (obstructed[i]) {
+                removeMarker(m.position.getX(), m.position.getY(), m.position.getZ());
+                continue;
+            }
+
+            if (!m.spawners.isEmpty()) {
+                p.put(m.position, m.spawners);
+            }
+        }
+
+        return p;
+    }
+
+    private ChunkMarkers getChunkMarkers(int x, int z) {
+        long key = Cache.key(x, z);
+        ChunkMarkers markers = markerCache.get(key);
+
+        if (markers == null || markers.isExpired()) {
+            markers = readChunkMarkers(x, z);
+            markerCache.put(key, markers);
+        }
+
+        return markers;
+    }
+
+    private ChunkMarkers readChunkMarkers(int cx, int cz) {
+        ChunkMarkers markers = new ChunkMarkers();
+        getMantle().iterateChunk(cx, cz, MatterMarker.class, (x, y, z, t) -> {
             if (t.getTag().equals("cave_floor") || t.getTag().equals("cave_ceiling")) {
                 return;
             }
 
             IrisMarker mark = getData().getMarkerLoader().load(t.getTag());
-            IrisPosition pos = new IrisPosition((c.getX() << 4) + x, y, (c.getZ() << 4) + z);
-
-            if (mark.isEmptyAbove()) {
-                AtomicBoolean remove = new AtomicBoolean(false);
-
-                try {
-                    J.sfut(() -> {
-                        if (c.getBlock(x, y + 1, z).getBlockData().getMaterial().isSolid() || c.getBlock(x, y + 2, z).getBlockData().getMaterial().isSolid()) {
-                            remove.set(true);
-                        }
-                    }).get();
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                }
 
-                if (remove.get()) {
-                    b.add(pos);
-                    return;
-                }
+            if (mark == null) {
+                return;
             }
 
+            KSet<IrisSpawner> spawners = new KSet<>();
+
             for (String i : mark.getSpawners()) {
                 IrisSpawner m = getData().getSpawnerLoader().load(i);
                 if (m == null) {
                     Iris.error("Cannot load spawner: " + i + " for marker on " + getName());
                     continue;
                 }
+
                 m.setReferenceMarker(mark);
+                spawners.add(m);
+            }
+
+            markers.add(new MarkerSpawners(new IrisPosition((cx << 4) + x, y, (cz << 4) + z), mark.isEmptyAbove(), spawners));
+        });
+
+        return markers;
+    }
+
+    /**
+     * Check the space above every marker that needs it in a single main thread task
+     *
+     * @return the obstructed flag of every marker, by index
+     */
+    private boolean[] findObstructedMarkers(Chunk c, ChunkMarkers markers) {
+        boolean[] obstructed = new boolean[markers.size()];
+
+        if (!markers.hasEmptyAbove()) {
+            return obstructed;
+        }
 
-                // This is so fucking incorrect its a joke
-                //noinspection ConstantConditions
-                if (m != null) {
-                    p.computeIfAbsent(pos, (k) -> new KSet<>()).add(m);
+        int minHeight = getEngine().getWorld().minHeight();
+        CompletableFuture<?> f = J.sfut(() -> {
+            for (int i = 0; i < markers.size(); i++) {
+                MarkerSpawners m = markers.get(i);
+
+                if (!m.emptyAbove) {
+                    continue;
                 }
+
+                int x = m.position.getX() & 15;
+                int y = m.position.getY() + minHeight;
+                int z = m.position.getZ() & 15;
+                obstructed[i] = c.getBlock(x, y + 1, z).getType().isSolid() || c.getBlock(x, y + 2, z).getType().isSolid();
             }
         });
 
-        for (IrisPosition i : b) {
-            getEngine().getMantle().getMantle().remove(i.getX(), i.getY(), i.getZ(), MatterMarker.class);
+        if (f == null) {
+            return obstructed;
         }
 
-        return p;
+        try {
+            f.get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+
+        return obstructed;
+    }
+
+    /**
+     * Remove a marker from the mantle and drop the cached markers of its chunk. Every marker
+     * removal goes through here so the marker cache never hands out a removed marker.
+     *
+     * @param x the block x
+     * @param y the mantle y
+     * @param z the block z
+     */
+    @Override
+    public void removeMarker(int x, int y, int z) {
+        getMantle().remove(x, y, z, MatterMarker.class);
+        invalidateMarkers(x >> 4, z >> 4);
+    }
+
+    /**
+     * Drop the cached markers of a chunk so the next lookup reads them from the mantle again
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     */
+    public void invalidateMarkers(int x, int z) {
+        markerCache.remove(Cache.key(x, z));
+    }
+
+    private void cleanupMarkers() {
+        markerCache.values().removeIf(ChunkMarkers::isExpired);
     }
 
     @Override
@@ -652,7 +781,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
                     IrisMarker mark = getData().getMarkerLoader().load(marker.getTag());
 
                     if (mark == null || mark.isRemoveOnChange()) {
-                        getMantle().remove(e.getBlock().getX(), e.getBlock().getY(), e.getBlock().getZ(), MatterMarker.class);
+                        removeMarker(e.getBlock().getX(), e.getBlock().getY(), e.getBlock().getZ());
                     }
                 }
             });
@@ -708,4 +837,41 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
 
         return (double) entityCount / (getEngine().getWorld().realWorld().getLoadedChunks().length + 1) * 1.28;
     }
+
+    /**
+     * A marker position with its resolved spawners
+     */
+    private static class MarkerSpawners {
+        private final IrisPosition position;
+        private final boolean emptyAbove;
+        private final KSet<IrisSpawner> spawners;
+
+        private MarkerSpawners(IrisPosition position, boolean emptyAbove, KSet<IrisSpawner> spawners) {
+            this.position = position;
+            this.emptyAbove = emptyAbove;
+            this.spawners = spawners;
+        }
+    }
+
+    /**
+     * The markers of one chunk, cached between ticks until the chunk changes or it expires
+     */
+    private static class ChunkMarkers extends KList<MarkerSpawners> {
+        private static final long TTL = 30000;
+        private final long time = M.ms();
+
+        private boolean isExpired() {
+            return M.ms() - time > TTL;
+        }
+
+        private boolean hasEmptyAbove() {
+            for (MarkerSpawners i : this) {
+                if (i.emptyAbove) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
 }
@@ -40,7 +40,7 @@ public class IrisSeaFloorDecorator extends IrisEngineDecorator {
         if (decorator != null) {
             if (!decorator.isStacking()) {
                 if (!decorator.isForcePlace() && !decorator.getSlopeCondition().isDefault()
-                        && !decorator.getSlopeCondition().isValid(getComplex().getSlopeStream().get(realX, realZ))) {
+                        && !decorator.getSlopeCondition().isValid(getComplex().getSlopeStream().getDouble(realX, realZ))) {
                     return;
                 }
                 if (height >= 0 || height < getEngine().getHeight()) {
@@ -53,7 +53,7 @@ public class IrisSurfaceDecorator extends IrisEngineDecorator {
 
         if (decorator != null) {
             if (!decorator.isForcePlace() && !decorator.getSlopeCondition().isDefault()
-                    && !decorator.getSlopeCondition().isValid(getComplex().getSlopeStream().get(realX, realZ))) {
+                    && !decorator.getSlopeCondition().isValid(getComplex().getSlopeStream().getDouble(realX, realZ))) {
                 return;
             }
 
@@ -54,6 +54,7 @@ import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.Position2;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterPlacement;
 import com.volmit.iris.util.matter.MatterUpdate;
 import com.volmit.iris.util.matter.TileWrapper;
 import com.volmit.iris.util.matter.slices.container.JigsawPieceContainer;
@@ -249,6 +250,20 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
         return getMantle().getHighest(x, z, getData(), ignoreFluid);
     }
 
+    /**
+     * Get the first free y of a column as a heightmap would report it, answered from the
+     * height streams so the chunk does not have to be generated
+     *
+     * @param x     the block x
+     * @param z     the block z
+     * @param fluid if fluid blocks the column (world surface) or not (ocean floor)
+     * @return the world y above the highest block
+     */
+    @BlockCoordinates
+    default int getBaseHeight(int x, int z, boolean fluid) {
+        return getMinHeight() + getComplex().getBaseHeight(x, z, fluid) + 1;
+    }
+
     @BlockCoordinates
     @Override
     default void catchBlockUpdates(int x, int y, int z, BlockData data) {
@@ -486,7 +501,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
         int rx = b.getX();
         int rz = b.getZ();
         int ry = b.getY() - getWorld().minHeight();
-        double he = getComplex().getHeightStream().get(rx, rz);
+        double he = getComplex().getHeightStream().getDouble(rx, rz);
         KList<IrisLootTable> tables = new KList<>();
 
         PlacedObject po = getObjectPlacement(rx, ry, rz);
@@ -802,24 +817,18 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
     }
 
     default String getObjectPlacementKey(int x, int y, int z) {
-        PlacedObject o = getObjectPlacement(x, y, z);
-
-        if (o != null && o.getObject() != null) {
-            return o.getObject().getLoadKey() + "@" + o.getId();
-        }
-
-        return null;
+        MatterPlacement placement = getMantle().getMantle().get(x, y, z, MatterPlacement.class);
+        return placement == null ? null : placement.toString();
     }
 
     default PlacedObject getObjectPlacement(int x, int y, int z) {
-        String objectAt = getMantle().getMantle().get(x, y, z, String.class);
-        if (objectAt == null || objectAt.isEmpty()) {
+        MatterPlacement placement = getMantle().getMantle().get(x, y, z, MatterPlacement.class);
+        if (placement == null) {
             return null;
         }
 
-        String[] v = objectAt.split("\\Q@\\E");
-        String object = v[0];
-        int id = Integer.parseInt(v[1]);
+        String object = placement.getKey();
+        int id = placement.getId();
 
 
         JigsawPieceContainer container = getMantle().getMantle().get(x, y, z, JigsawPieceContainer.class);
@@ -861,9 +870,10 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
                 .map(IrisRegistrant::getLoadKey)
                 .collect(Collectors.toSet());
         Locator<IrisBiome> lb = Locator.surfaceBiome(biome.getLoadKey());
-        Locator<IrisBiome> locator = (engine, chunk)
-                -> regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())
-                && lb.matches(engine, chunk);
+        Locator<IrisRegion> inRegion = (engine, chunk)
+                -> regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey());
+        Locator<IrisBiome> locator = Locator.coarse((engine, chunk) -> inRegion.matches(engine, chunk)
+                && lb.matches(engine, chunk), inRegion, Locator::regionCells, lb.getIndexKey());
 
         if (!regionKeys.isEmpty()) {
             locator.find(player, teleport, "Biome " + biome.getName());
@@ -926,14 +936,10 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
                     .collect(Collectors.toSet());
 
             Locator<IrisJigsawStructure> sl = Locator.jigsawStructure(s.getLoadKey());
-            Locator<IrisBiome> locator = (engine, chunk) -> {
-                if (biomeKeys.contains(getSurfaceBiome((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())) {
-                    return sl.matches(engine, chunk);
-                } else if (regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())) {
-                    return sl.matches(engine, chunk);
-                }
-                return false;
-            };
+            Locator<IrisBiome> inBiome = (engine, chunk) -> biomeKeys.contains(getSurfaceBiome((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())
+                    || regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey());
+            Locator<IrisBiome> locator = Locator.coarse((engine, chunk) -> inBiome.matches(engine, chunk)
+                    && sl.matches(engine, chunk), inBiome, Locator::biomeCells, null);
 
             if (!regionKeys.isEmpty()) {
                 locator.find(player, teleport, "Structure " + s.getLoadKey());
@@ -956,15 +962,10 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
                 .collect(Collectors.toSet());
 
         Locator<IrisObject> sl = Locator.object(s);
-        Locator<IrisBiome> locator = (engine, chunk) -> {
-            if (biomeKeys.contains(getSurfaceBiome((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())) {
-                return sl.matches(engine, chunk);
-            } else if (regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())) {
-                return sl.matches(engine, chunk);
-            }
-
-            return false;
-        };
+        Locator<IrisBiome> inBiome = (engine, chunk) -> biomeKeys.contains(getSurfaceBiome((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey())
+                || regionKeys.contains(getRegion((chunk.getX() << 4) + 8, (chunk.getZ() << 4) + 8).getLoadKey());
+        Locator<IrisBiome> locator = Locator.coarse((engine, chunk) -> inBiome.matches(engine, chunk)
+                && sl.matches(engine, chunk), inBiome, Locator::biomeCells, null);
 
         if (!regionKeys.isEmpty()) {
             locator.find(player, teleport, "Object " + s);
@@ -48,4 +48,6 @@ public interface EngineWorldManager {
     void chargeEnergy();
 
     void teleportAsync(PlayerTeleportEvent e);
+
+    void removeMarker(int x, int y, int z);
 }
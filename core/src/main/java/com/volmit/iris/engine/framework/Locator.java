@@ -18,7 +18,6 @@
 
 package com.volmit.iris.engine.framework;
 
-import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.nms.container.BlockPos;
 import com.volmit.iris.core.nms.container.Pair;
 import com.volmit.iris.core.tools.IrisToolbelt;
@@ -26,18 +25,15 @@ import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisJigsawStructure;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisRegion;
+import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.Position2;
-import com.volmit.iris.util.math.Spiraler;
 import com.volmit.iris.util.matter.MatterCavern;
-import com.volmit.iris.util.parallel.BurstExecutor;
-import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.plugin.VolmitSender;
 import com.volmit.iris.util.scheduling.J;
-import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import com.volmit.iris.util.scheduling.jobs.SingleJob;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -47,22 +43,68 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.ToIntBiFunction;
 
 @FunctionalInterface
 public interface Locator<T> {
     static void cancelSearch() {
-        if (LocatorCanceller.cancel != null) {
-            LocatorCanceller.cancel.run();
-            LocatorCanceller.cancel = null;
+        Runnable cancel = LocatorCanceller.cancel.getAndSet(null);
+
+        if (cancel != null) {
+            cancel.run();
         }
     }
 
+    /**
+     * Wrap a locator with a coarse filter so whole cells are skipped when the filter does
+     * not match any of their sampled chunks
+     *
+     * @param locator  the locator testing single chunks
+     * @param filter   the cheap test of a cell
+     * @param cellSize the cell size in chunks for an engine and search origin
+     * @param indexKey the key matches are indexed under or null
+     * @param <T>      the type
+     * @return the filtered locator
+     */
+    static <T> Locator<T> coarse(Locator<T> locator, Locator<?> filter, ToIntBiFunction<Engine, Position2> cellSize, String indexKey) {
+        return new Locator<>() {
+            @Override
+            public boolean matches(Engine engine, Position2 chunk) {
+                return locator.matches(engine, chunk);
+            }
+
+            @Override
+            public Locator<?> getFilter() {
+                return filter;
+            }
+
+            @Override
+            public int getCellSize(Engine engine, Position2 origin) {
+                return cellSize.applyAsInt(engine, origin);
+            }
+
+            @Override
+            public String getIndexKey() {
+                return indexKey;
+            }
+        };
+    }
+
+    @ChunkCoordinates
+    static int regionCells(Engine engine, Position2 origin) {
+        return LocatorSearch.measureCells(engine.getComplex().getRegionStream(), (origin.getX() << 4) + 8, (origin.getZ() << 4) + 8);
+    }
+
+    @ChunkCoordinates
+    static int biomeCells(Engine engine, Position2 origin) {
+        return LocatorSearch.measureCells(engine.getComplex().getTrueBiomeStream(), (origin.getX() << 4) + 8, (origin.getZ() << 4) + 8);
+    }
+
     static Locator<IrisRegion> region(String loadKey) {
-        return (e, c) -> e.getRegion((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        Locator<IrisRegion> l = (e, c) -> e.getRegion((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        return coarse(l, l, Locator::regionCells, LocatorIndex.REGION + loadKey);
     }
 
     static Locator<IrisJigsawStructure> jigsawStructure(String loadKey) {
@@ -77,7 +119,8 @@ public interface Locator<T> {
     }
 
     static Locator<IrisBiome> surfaceBiome(String loadKey) {
-        return (e, c) -> e.getSurfaceBiome((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        Locator<IrisBiome> l = (e, c) -> e.getSurfaceBiome((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        return coarse(l, l, Locator::biomeCells, LocatorIndex.BIOME + loadKey);
     }
 
     static Locator<BlockPos> poi(String type) {
@@ -88,7 +131,8 @@ public interface Locator<T> {
     }
 
     static Locator<IrisBiome> caveBiome(String loadKey) {
-        return (e, c) -> e.getCaveBiome((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        Locator<IrisBiome> l = (e, c) -> e.getCaveBiome((c.getX() << 4) + 8, (c.getZ() << 4) + 8).getLoadKey().equals(loadKey);
+        return coarse(l, l, (e, o) -> LocatorSearch.measureCells(e.getComplex().getCaveBiomeStream(), (o.getX() << 4) + 8, (o.getZ() << 4) + 8), null);
     }
 
     static Locator<IrisBiome> caveOrMantleBiome(String loadKey) {
@@ -111,6 +155,35 @@ public interface Locator<T> {
 
     boolean matches(Engine engine, Position2 chunk);
 
+    /**
+     * A cheap test run on a few chunks of every coarse cell of a search. Cells it does not
+     * match are skipped without testing their chunks.
+     *
+     * @return the filter or null to test every chunk
+     */
+    default Locator<?> getFilter() {
+        return null;
+    }
+
+    /**
+     * The size of the coarse cells of a search in chunks. Cells should be smaller than the
+     * features the filter looks for so a feature is never skipped between two samples.
+     *
+     * @param engine the engine
+     * @param origin the chunk the search starts at
+     * @return the cell size in chunks
+     */
+    default int getCellSize(Engine engine, Position2 origin) {
+        return 1;
+    }
+
+    /**
+     * @return the key matches of this locator are recorded under in the {@link LocatorIndex} or null
+     */
+    default String getIndexKey() {
+        return null;
+    }
+
     default void find(Player player, boolean teleport, String message) {
         find(player, location -> {
             if (teleport) {
@@ -168,50 +241,6 @@ public interface Locator<T> {
         }
 
         cancelSearch();
-
-        return MultiBurst.burst.completeValue(() -> {
-            int tc = IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()) * 17;
-            MultiBurst burst = MultiBurst.burst;
-            AtomicBoolean found = new AtomicBoolean(false);
-            Position2 cursor = pos;
-            AtomicInteger searched = new AtomicInteger();
-            AtomicBoolean stop = new AtomicBoolean(false);
-            AtomicReference<Position2> foundPos = new AtomicReference<>();
-            PrecisionStopwatch px = PrecisionStopwatch.start();
-            LocatorCanceller.cancel = () -> stop.set(true);
-            AtomicReference<Position2> next = new AtomicReference<>(cursor);
-            Spiraler s = new Spiraler(100000, 100000, (x, z) -> next.set(new Position2(x, z)));
-            s.setOffset(cursor.getX(), cursor.getZ());
-            s.next();
-            while (!found.get() && !stop.get() && px.getMilliseconds() < timeout) {
-                BurstExecutor e = burst.burst(tc);
-
-                for (int i = 0; i < tc; i++) {
-                    Position2 p = next.get();
-                    s.next();
-                    e.queue(() -> {
-                        if (matches(engine, p)) {
-                            if (foundPos.get() == null) {
-                                foundPos.set(p);
-                            }
-
-                            found.set(true);
-                        }
-                        searched.incrementAndGet();
-                    });
-                }
-
-                e.complete();
-                checks.accept(searched.get());
-            }
-
-            LocatorCanceller.cancel = null;
-
-            if (found.get() && foundPos.get() != null) {
-                return foundPos.get();
-            }
-
-            return null;
-        });
+        return LocatorSearch.search(engine, this, pos, timeout, checks);
     }
 }
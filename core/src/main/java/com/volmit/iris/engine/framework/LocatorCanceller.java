@@ -18,6 +18,8 @@
 
 package com.volmit.iris.engine.framework;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 public class LocatorCanceller {
-    protected static Runnable cancel = null;
+    protected static final AtomicReference<Runnable> cancel = new AtomicReference<>();
 }
@@ -0,0 +1,248 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.framework;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.math.Position2;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A sparse, persistent index of where regions and surface biomes were seen in a world. Searches
+ * record what they sample on their coarse grid, keeping at most one chunk per key in every
+ * 32 by 32 chunk area. Entries are only hints, a search verifies them before using them.
+ */
+public class LocatorIndex {
+    public static final String REGION = "region:";
+    public static final String BIOME = "biome:";
+    private static final int MAGIC = 0x49524C49;
+    private static final int VERSION = 1;
+    private static final KMap<File, LocatorIndex> indexes = new KMap<>();
+
+    private final File file;
+    private final long seed;
+    private final String dimension;
+    private final KMap<String, KMap<Long, Long>> entries;
+    private boolean dirty;
+
+    private LocatorIndex(File file, long seed, String dimension) {
+        this.file = file;
+        this.seed = seed;
+        this.dimension = dimension;
+        this.entries = new KMap<>();
+
+        if (file.exists()) {
+            try (DataInputStream din = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+                read(din);
+            } catch (Throwable e) {
+                Iris.warn("Failed to read the locator index " + file.getPath() + ", starting over.");
+                Iris.reportError(e);
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the index of the world of an engine
+     *
+     * @param engine the engine
+     * @return the index
+     */
+    public static LocatorIndex get(Engine engine) {
+        return indexes.computeIfAbsent(fileOf(engine), (k) -> new LocatorIndex(k, engine.getSeedManager().getSeed(), engine.getDimension().getLoadKey()));
+    }
+
+    /**
+     * Save and drop the index of the world of an engine which is closing
+     *
+     * @param engine the engine
+     */
+    public static void close(Engine engine) {
+        LocatorIndex index = indexes.remove(fileOf(engine));
+
+        if (index != null) {
+            index.save();
+        }
+    }
+
+    private static File fileOf(Engine engine) {
+        return new File(engine.getWorld().worldFolder(), "iris/locator.index");
+    }
+
+    private void read(DataInputStream din) throws IOException {
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Not a locator index");
+        }
+
+        int version = din.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported locator index version " + version);
+        }
+
+        if (din.readLong() != seed || !din.readUTF().equals(dimension)) {
+            Iris.debug("Dropping the locator index of " + file.getPath() + " as the world seed or dimension changed");
+            return;
+        }
+
+        int keys = din.readInt();
+        for (int i = 0; i < keys; i++) {
+            String key = din.readUTF();
+            int count = din.readInt();
+            KMap<Long, Long> positions = new KMap<>();
+
+            for (int j = 0; j < count; j++) {
+                int x = din.readInt();
+                int z = din.readInt();
+                positions.put(Cache.key(x >> 5, z >> 5), Cache.key(x, z));
+            }
+
+            entries.put(key, positions);
+        }
+    }
+
+    /**
+     * Record that a key was seen at a chunk
+     *
+     * @param key the key, prefixed with {@link #REGION} or {@link #BIOME}
+     * @param x   the chunk x
+     * @param z   the chunk z
+     */
+    public synchronized void record(String key, int x, int z) {
+        if (entries.computeIfAbsent(key, (k) -> new KMap<>()).putIfAbsent(Cache.key(x >> 5, z >> 5), Cache.key(x, z)) == null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Record the region and surface biome at the center of a chunk
+     *
+     * @param engine the engine
+     * @param chunk  the chunk
+     */
+    public void record(Engine engine, Position2 chunk) {
+        int x = (chunk.getX() << 4) + 8;
+        int z = (chunk.getZ() << 4) + 8;
+        record(REGION + engine.getRegion(x, z).getLoadKey(), chunk.getX(), chunk.getZ());
+        record(BIOME + engine.getSurfaceBiome(x, z).getLoadKey(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Drop a recorded chunk which no longer matches its key
+     *
+     * @param key   the key
+     * @param chunk the chunk
+     */
+    public synchronized void forget(String key, Position2 chunk) {
+        KMap<Long, Long> positions = entries.get(key);
+
+        if (positions != null && positions.remove(Cache.key(chunk.getX() >> 5, chunk.getZ() >> 5), Cache.key(chunk.getX(), chunk.getZ()))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the recorded chunks of a key, nearest first
+     *
+     * @param key    the key
+     * @param origin the chunk to measure from
+     * @param limit  the maximum amount of chunks
+     * @return the chunks
+     */
+    public synchronized KList<Position2> nearest(String key, Position2 origin, int limit) {
+        KMap<Long, Long> positions = entries.get(key);
+        KList<Position2> found = new KList<>();
+
+        if (positions == null) {
+            return found;
+        }
+
+        for (long i : positions.values()) {
+            found.add(new Position2(Cache.keyX(i), Cache.keyZ(i)));
+        }
+
+        found.sort(Comparator.comparingDouble((i) -> i.distance(origin)));
+        return found.size() > limit ? new KList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Write the index to disk if anything was recorded since the last save
+     */
+    public void save() {
+        byte[] data;
+
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+                try (DataOutputStream dos = new DataOutputStream(new GZIPOutputStream(out))) {
+                    dos.writeInt(MAGIC);
+                    dos.writeByte(VERSION);
+                    dos.writeLong(seed);
+                    dos.writeUTF(dimension);
+                    dos.writeInt(entries.size());
+
+                    for (String i : entries.keySet()) {
+                        KMap<Long, Long> positions = entries.get(i);
+                        dos.writeUTF(i);
+                        dos.writeInt(positions.size());
+
+                        for (long j : positions.values()) {
+                            dos.writeInt(Cache.keyX(j));
+                            dos.writeInt(Cache.keyZ(j));
+                        }
+                    }
+                }
+
+                data = out.toByteArray();
+                dirty = false;
+            } catch (IOException e) {
+                Iris.reportError(e);
+                return;
+            }
+        }
+
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try {
+            file.getParentFile().mkdirs();
+            Files.write(temp.toPath(), data);
+
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Iris.error("Failed to save the locator index " + file.getPath());
+            Iris.reportError(e);
+        }
+    }
+}
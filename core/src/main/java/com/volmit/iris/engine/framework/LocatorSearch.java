@@ -0,0 +1,276 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.framework;
+
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.core.loader.IrisRegistrant;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.math.Position2;
+import com.volmit.iris.util.parallel.BurstExecutor;
+import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
+import com.volmit.iris.util.stream.ProceduralStream;
+
+import java.util.Comparator;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs locator searches on their own small pool so a search never competes with generation.
+ * Searches walk rings of coarse cells around the origin. Locators with a filter only test the
+ * center and corners of a cell with it and refine the cells it matched chunk by chunk.
+ */
+public class LocatorSearch {
+    private static final int MAX_CELL = 16;
+    private static final int INDEX_HINTS = 4;
+    // One extra thread for the search itself, which waits on its cell batches
+    private static final MultiBurst burst = new MultiBurst("Iris Locator", Thread.MIN_PRIORITY,
+            Math.max(1, IrisSettings.get().getPerformance().getLocatorThreads()) + 1);
+
+    private final Engine engine;
+    private final Locator<?> locator;
+    private final Locator<?> filter;
+    private final Position2 origin;
+    private final AtomicBoolean stop;
+    private final LocatorIndex index;
+    private final AtomicInteger searched;
+    private int cell;
+
+    private LocatorSearch(Engine engine, Locator<?> locator, Position2 origin, AtomicBoolean stop) {
+        this.engine = engine;
+        this.locator = locator;
+        this.filter = locator.getFilter();
+        this.origin = origin;
+        this.stop = stop;
+        this.index = IrisSettings.get().getPerformance().isLocatorIndex() ? LocatorIndex.get(engine) : null;
+        this.searched = new AtomicInteger();
+    }
+
+    /**
+     * Start a search
+     *
+     * @param engine  the engine
+     * @param locator the locator
+     * @param origin  the chunk to search around
+     * @param timeout the time limit in milliseconds
+     * @param checks  receives the amount of tested chunks
+     * @return the nearest matching chunk or null
+     */
+    public static Future<Position2> search(Engine engine, Locator<?> locator, Position2 origin, long timeout, Consumer<Integer> checks) {
+        AtomicBoolean stop = new AtomicBoolean(false);
+        Runnable canceller = () -> stop.set(true);
+        LocatorCanceller.cancel.set(canceller);
+
+        return burst.completeValue(() -> {
+            try {
+                return new LocatorSearch(engine, locator, origin, stop).run(timeout, checks);
+            } finally {
+                // A newer search may have replaced the canceller already
+                LocatorCanceller.cancel.compareAndSet(canceller, null);
+            }
+        });
+    }
+
+    /**
+     * Estimate a cell size for a stream from the length of the runs of equal values along
+     * both axes through a point. A cell is a quarter of the average run so features are
+     * sampled a few times per cell.
+     *
+     * @param stream the stream
+     * @param x      the block x
+     * @param z      the block z
+     * @return the cell size in chunks
+     */
+    public static int measureCells(ProceduralStream<? extends IrisRegistrant> stream, int x, int z) {
+        int samples = 128;
+        int step = 16;
+        int changes = 0;
+        String lx = null;
+        String lz = null;
+
+        for (int i = -samples / 2; i < samples / 2; i++) {
+            String a = stream.get(x + (i * step), z).getLoadKey();
+            String b = stream.get(x, z + (i * step)).getLoadKey();
+            changes += lx != null && !lx.equals(a) ? 1 : 0;
+            changes += lz != null && !lz.equals(b) ? 1 : 0;
+            lx = a;
+            lz = b;
+        }
+
+        double run = (samples * step * 2D) / (changes + 1);
+        return Math.max(1, Math.min(MAX_CELL, (int) (run / 4 / 16)));
+    }
+
+    private Position2 run(long timeout, Consumer<Integer> checks) {
+        PrecisionStopwatch px = PrecisionStopwatch.start();
+        cell = filter == null ? 1 : Math.max(1, Math.min(MAX_CELL, locator.getCellSize(engine, origin)));
+        Position2 best = lookup();
+        double limit = best == null ? Double.MAX_VALUE : Math.sqrt(best.distance(origin));
+        int tc = IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()) * 17;
+        int ox = Math.floorDiv(origin.getX(), cell);
+        int oz = Math.floorDiv(origin.getZ(), cell);
+        AtomicReference<Position2> found = new AtomicReference<>();
+
+        try {
+            for (int r = 0; !stop.get() && px.getMilliseconds() < timeout; r++) {
+                if ((r - 1) * (double) cell > limit) {
+                    break;
+                }
+
+                KList<Position2> ring = ring(ox, oz, r);
+
+                for (int i = 0; i < ring.size() && !stop.get(); i += tc) {
+                    BurstExecutor e = burst.burst(Math.min(tc, ring.size() - i));
+
+                    for (Position2 c : ring.subList(i, Math.min(ring.size(), i + tc))) {
+                        e.queue(() -> {
+                            if (stop.get() || px.getMilliseconds() >= timeout) {
+                                return;
+                            }
+
+                            Position2 p = searchCell(c);
+
+                            if (p != null) {
+                                found.accumulateAndGet(p, this::nearest);
+                            }
+                        });
+                    }
+
+                    e.complete();
+                    checks.accept(searched.get());
+                }
+
+                if (found.get() != null) {
+                    best = nearest(best, found.get());
+                    limit = Math.sqrt(best.distance(origin));
+                }
+            }
+        } finally {
+            if (index != null) {
+                index.save();
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Try the indexed hints for this locator, verifying each of them
+     */
+    private Position2 lookup() {
+        String key = locator.getIndexKey();
+
+        if (index == null || key == null) {
+            return null;
+        }
+
+        for (Position2 i : index.nearest(key, origin, INDEX_HINTS)) {
+            searched.incrementAndGet();
+            if (locator.matches(engine, i)) {
+                return i;
+            }
+
+            index.forget(key, i);
+        }
+
+        return null;
+    }
+
+    private Position2 searchCell(Position2 c) {
+        int x = c.getX() * cell;
+        int z = c.getZ() * cell;
+
+        if (filter != null && cell > 1) {
+            Position2 center = new Position2(x + (cell >> 1), z + (cell >> 1));
+
+            if (index != null) {
+                index.record(engine, center);
+            }
+
+            if (!filter.matches(engine, center)
+                    && !filter.matches(engine, new Position2(x, z))
+                    && !filter.matches(engine, new Position2(x + cell - 1, z))
+                    && !filter.matches(engine, new Position2(x, z + cell - 1))
+                    && !filter.matches(engine, new Position2(x + cell - 1, z + cell - 1))) {
+                searched.addAndGet(5);
+                return null;
+            }
+        }
+
+        KList<Position2> chunks = new KList<>(cell * cell);
+        for (int i = 0; i < cell; i++) {
+            for (int j = 0; j < cell; j++) {
+                chunks.add(new Position2(x + i, z + j));
+            }
+        }
+
+        if (cell > 1) {
+            chunks.sort(Comparator.comparingDouble((i) -> i.distance(origin)));
+        }
+
+        for (Position2 i : chunks) {
+            if (stop.get()) {
+                return null;
+            }
+
+            searched.incrementAndGet();
+            if (locator.matches(engine, i)) {
+                return i;
+            }
+        }
+
+        return null;
+    }
+
+    private Position2 nearest(Position2 a, Position2 b) {
+        if (a == null) {
+            return b;
+        }
+
+        if (b == null) {
+            return a;
+        }
+
+        return b.distance(origin) < a.distance(origin) ? b : a;
+    }
+
+    private static KList<Position2> ring(int ox, int oz, int r) {
+        KList<Position2> ring = new KList<>(Math.max(1, r * 8));
+
+        if (r == 0) {
+            ring.add(new Position2(ox, oz));
+            return ring;
+        }
+
+        for (int i = -r; i <= r; i++) {
+            ring.add(new Position2(ox + i, oz - r));
+            ring.add(new Position2(ox + i, oz + r));
+        }
+
+        for (int i = -r + 1; i < r; i++) {
+            ring.add(new Position2(ox - r, oz + i));
+            ring.add(new Position2(ox + r, oz + i));
+        }
+
+        return ring;
+    }
+}
@@ -32,4 +32,39 @@ public interface MeteredCache {
     }
 
     boolean isClosed();
+
+    /**
+     * @return true if this cache is bounded by the estimated size of its values in bytes instead of their count
+     */
+    default boolean isWeighted() {
+        return false;
+    }
+
+    /**
+     * @return the estimated size of all values in bytes if this cache is weighted, the entry count otherwise
+     */
+    default long getWeightedSize() {
+        return getSize();
+    }
+
+    default long getHitCount() {
+        return 0;
+    }
+
+    default long getMissCount() {
+        return 0;
+    }
+
+    default long getLoadCount() {
+        return 0;
+    }
+
+    default long getEvictionCount() {
+        return 0;
+    }
+
+    default double getHitRate() {
+        long requests = getHitCount() + getMissCount();
+        return requests == 0 ? 1D : (double) getHitCount() / (double) requests;
+    }
 }
@@ -22,9 +22,10 @@ import java.util.function.Consumer;
 @FunctionalInterface
 public interface ResultLocator<T> {
     static void cancelSearch() {
-        if (LocatorCanceller.cancel != null) {
-            LocatorCanceller.cancel.run();
-            LocatorCanceller.cancel = null;
+        Runnable cancel = LocatorCanceller.cancel.getAndSet(null);
+
+        if (cancel != null) {
+            cancel.run();
         }
     }
 
@@ -71,7 +72,8 @@ public interface ResultLocator<T> {
             AtomicInteger searched = new AtomicInteger();
             AtomicBoolean stop = new AtomicBoolean(false);
             PrecisionStopwatch px = PrecisionStopwatch.start();
-            if (cancelable) LocatorCanceller.cancel = () -> stop.set(true);
+            Runnable canceller = () -> stop.set(true);
+            if (cancelable) LocatorCanceller.cancel.set(canceller);
             AtomicReference<Position2> next = new AtomicReference<>(cursor);
             Spiraler s = new Spiraler(100000, 100000, (x, z) -> next.set(new Position2(x, z)));
             s.setOffset(cursor.getX(), cursor.getZ());
@@ -99,7 +101,7 @@ public interface ResultLocator<T> {
                 checks.accept(searched.get());
             }
 
-            LocatorCanceller.cancel = null;
+            LocatorCanceller.cancel.compareAndSet(canceller, null);
 
             if (found.get() && foundObj.get() != null) {
                 return foundObj.get();
@@ -145,8 +145,8 @@ public interface EngineMantle extends IObjectPlacer {
         return getEngine().getDimension().isDebugSmartBore();
     }
 
-    default void trim(long dur, int limit) {
-        getMantle().trim(dur, limit);
+    default void trim(long dur, long budget) {
+        getMantle().trim(dur, budget);
     }
 
     default IrisData getData() {
@@ -177,8 +177,8 @@ public interface EngineMantle extends IObjectPlacer {
 
     }
 
-    default void trim(int limit) {
-        getMantle().trim(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()), limit);
+    default void trim(long budget) {
+        getMantle().trim(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()), budget);
     }
     default int unloadTectonicPlate(int tectonicLimit){
         return getMantle().unloadTectonicPlate(tectonicLimit);
@@ -288,7 +288,7 @@ public interface EngineMantle extends IObjectPlacer {
         if (!getMantle().hasFlag(x, z, MantleFlag.CLEANED) && isCovered(x, z)) {
             getMantle().raiseFlag(x, z, MantleFlag.CLEANED, () -> {
                 getMantle().deleteChunkSlice(x, z, BlockData.class);
-                getMantle().deleteChunkSlice(x, z, String.class);
+                getMantle().deleteChunkSlice(x, z, MatterPlacement.class);
                 getMantle().deleteChunkSlice(x, z, MatterCavern.class);
                 getMantle().deleteChunkSlice(x, z, MatterFluidBody.class);
             });
@@ -304,4 +304,19 @@ public interface EngineMantle extends IObjectPlacer {
     default double getTectonicDuration(){
         return getMantle().getAdjustedIdleDuration().get();
     }
+    default long getTectonicWeight(){
+        return getMantle().getLoadedRegions().getWeightedSize();
+    }
+    default double getTectonicHitRate(){
+        return getMantle().getLoadedRegions().getHitRate();
+    }
+    default double getTectonicPrefetchHitRate(){
+        return getMantle().getLoadedRegions().getPrefetchHitRate();
+    }
+    default double getTectonicLockContention(){
+        return getMantle().getHyperLock().getContentionRate();
+    }
+    default long getTectonicLockWait(){
+        return getMantle().getHyperLock().getWaitNanos();
+    }
 }
\ No newline at end of file
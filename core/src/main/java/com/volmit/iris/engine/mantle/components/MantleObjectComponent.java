@@ -35,6 +35,7 @@ import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.mantle.MantleFlag;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterPlacement;
 import com.volmit.iris.util.matter.MatterStructurePOI;
 import com.volmit.iris.util.noise.CNG;
 import com.volmit.iris.util.noise.NoiseType;
@@ -110,9 +111,9 @@ public class MantleObjectComponent extends IrisMantleComponent {
             }
             int xx = rng.i(x, x + 15);
             int zz = rng.i(z, z + 15);
-            int id = rng.i(0, Integer.MAX_VALUE);
+            MatterPlacement placement = new MatterPlacement(v.getLoadKey(), rng.i(0, Integer.MAX_VALUE));
             v.place(xx, -1, zz, writer, objectPlacement, rng, (b, data) -> {
-                writer.setData(b.getX(), b.getY(), b.getZ(), v.getLoadKey() + "@" + id);
+                writer.setData(b.getX(), b.getY(), b.getZ(), placement);
                 if (objectPlacement.isDolphinTarget() && objectPlacement.isUnderwater() && B.isStorageChest(data)) {
                     writer.setData(b.getX(), b.getY(), b.getZ(), MatterStructurePOI.BURIED_TREASURE);
                 }
@@ -0,0 +1,102 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.engine.modifier;
+
+import com.volmit.iris.util.mantle.Mantle;
+import com.volmit.iris.util.mantle.MantleChunk;
+import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterSlice;
+
+/**
+ * The caverns of one mantle chunk as a bit per block. It is read once from the cavern slices
+ * so a stage can probe caverns without a mantle lookup per block.
+ */
+class CavernMask {
+    private final int height;
+    private final int words;
+    private final long[] bits;
+
+    private CavernMask(int height) {
+        this.height = height;
+        this.words = (height + 63) >> 6;
+        this.bits = new long[words << 8];
+    }
+
+    /**
+     * Read the caverns of a chunk
+     *
+     * @param mantle the mantle
+     * @param x      the chunk x
+     * @param z      the chunk z
+     * @param height the height of the world
+     * @return the cavern mask
+     */
+    static CavernMask of(Mantle mantle, int x, int z, int height) {
+        CavernMask mask = new CavernMask(height);
+        MantleChunk mc = mantle.getChunk(x, z);
+        int sections = Math.min(mantle.getWorldHeight() >> 4, (height + 15) >> 4);
+
+        for (int s = 0; s < sections; s++) {
+            Matter matter = mc.get(s);
+
+            if (matter == null) {
+                continue;
+            }
+
+            MatterSlice<MatterCavern> slice = matter.getSlice(MatterCavern.class);
+
+            if (slice == null) {
+                continue;
+            }
+
+            int bs = s << 4;
+            slice.iterateSync((rx, ry, rz, c) -> {
+                if (c != null) {
+                    mask.set(rx, ry + bs, rz);
+                }
+            });
+        }
+
+        return mask;
+    }
+
+    private void set(int x, int y, int z) {
+        if (y < height) {
+            bits[(((z << 4) | x) * words) + (y >> 6)] |= 1L << (y & 63);
+        }
+    }
+
+    /**
+     * Check if a block of the chunk is carved
+     *
+     * @param x the x within the chunk (0-15)
+     * @param y the y within the world (0 is the bottom)
+     * @param z the z within the chunk (0-15)
+     * @return true if there is a cavern
+     */
+    boolean isCarved(int x, int y, int z) {
+        if (y < 0 || y >= height) {
+            return false;
+        }
+
+        return (bits[(((z << 4) | x) * words) + (y >> 6)] & (1L << (y & 63))) != 0;
+    }
+}
@@ -19,7 +19,6 @@
 package com.volmit.iris.engine.modifier;
 
 import com.volmit.iris.engine.actuator.IrisDecorantActuator;
-import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.engine.object.*;
@@ -27,13 +26,14 @@ import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
-import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.mantle.MantleChunk;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.matter.slices.MarkerMatter;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Data;
@@ -58,117 +58,142 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         PrecisionStopwatch p = PrecisionStopwatch.start();
         Mantle mantle = getEngine().getMantle().getMantle();
         MantleChunk mc = getEngine().getMantle().getMantle().getChunk(x, z);
-        KMap<Long, KList<Integer>> positions = new KMap<>();
-        KMap<IrisPosition, MatterCavern> walls = new KMap<>();
-        Consumer4<Integer, Integer, Integer, MatterCavern> iterator = (xx, yy, zz, c) -> {
-            if (c == null) {
-                return;
-            }
+        int height = getEngine().getWorld().maxHeight() - getEngine().getWorld().minHeight();
+        CaveColumns columns = new CaveColumns(height);
+        int sections = Math.min(mantle.getWorldHeight() >> 4, (height + 15) >> 4);
 
-            if (yy >= getEngine().getWorld().maxHeight() - getEngine().getWorld().minHeight() || yy <= 0) { // Yes, skip bedrock
-                return;
-            }
+        for (int s = 0; s < sections; s++) {
+            Matter matter = mc.get(s);
 
-            int rx = xx & 15;
-            int rz = zz & 15;
+            if (matter == null) {
+                continue;
+            }
 
-            BlockData current = output.get(rx, yy, rz);
+            MatterSlice<MatterCavern> slice = matter.getSlice(MatterCavern.class);
 
-            if (B.isFluid(current)) {
-                return;
+            if (slice == null) {
+                continue;
             }
 
-            positions.computeIfAbsent(Cache.key(rx, rz), (k) -> new KList<>()).qadd(yy);
+            int bs = s << 4;
+            slice.iterateSync((rx, ry, rz, c) -> {
+                int yy = ry + bs;
 
-            //todo: Fix chunk decoration not working on chunk's border
+                if (c == null || yy >= height) {
+                    return;
+                }
 
-            if (rz < 15 && mantle.get(xx, yy, zz + 1, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx, yy, rz + 1), c);
-            }
+                columns.setCavern(rx, yy, rz);
 
-            if (rx < 15 && mantle.get(xx + 1, yy, zz, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx + 1, yy, rz), c);
-            }
+                if (yy <= 0) { // Yes, skip bedrock
+                    return;
+                }
 
-            if (rz > 0 && mantle.get(xx, yy, zz - 1, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx, yy, rz - 1), c);
-            }
+                BlockData current = output.get(rx, yy, rz);
 
-            if (rx > 0 && mantle.get(xx - 1, yy, zz, MatterCavern.class) == null) {
-                walls.put(new IrisPosition(rx - 1, yy, rz), c);
-            }
+                if (B.isFluid(current)) {
+                    return;
+                }
 
-            if (current.getMaterial().isAir()) {
-                return;
-            }
+                columns.setCarved(rx, yy, rz, c);
 
-            if (c.isWater()) {
-                output.set(rx, yy, rz, WATER);
-            } else if (c.isLava()) {
-                output.set(rx, yy, rz, LAVA);
-            } else {
-                if (getEngine().getDimension().getCaveLavaHeight() > yy) {
+                if (current.getMaterial().isAir()) {
+                    return;
+                }
+
+                if (c.isWater()) {
+                    output.set(rx, yy, rz, WATER);
+                } else if (c.isLava()) {
                     output.set(rx, yy, rz, LAVA);
                 } else {
-                    output.set(rx, yy, rz, AIR);
+                    if (getEngine().getDimension().getCaveLavaHeight() > yy) {
+                        output.set(rx, yy, rz, LAVA);
+                    } else {
+                        output.set(rx, yy, rz, AIR);
+                    }
                 }
+            });
+        }
+
+        if (columns.isEmpty()) {
+            getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
+            return;
+        }
+
+        //todo: Fix chunk decoration not working on chunk's border
+        columns.computeWalls();
+
+        for (int rx = 0; rx < 16; rx++) {
+            for (int rz = 0; rz < 16; rz++) {
+                decorateWalls(output, context, columns, rx, rz, x, z);
+            }
+        }
+
+        for (int rx = 0; rx < 16; rx++) {
+            for (int rz = 0; rz < 16; rz++) {
+                processColumn(output, columns, mantle, rx, rz, rx + (x << 4), rz + (z << 4));
             }
-        };
+        }
 
-        mc.iterate(MatterCavern.class, iterator);
+        getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
+    }
 
-        walls.forEach((i, v) -> {
-            IrisBiome biome = v.getCustomBiome().isEmpty()
-                    ? getEngine().getCaveBiome(i.getX() + (x << 4), i.getZ() + (z << 4))
-                    : getEngine().getData().getBiomeLoader().load(v.getCustomBiome());
+    private void decorateWalls(Hunk<BlockData> output, ChunkContext context, CaveColumns columns, int rx, int rz, int x, int z) {
+        int wx = rx + (x << 4);
+        int wz = rz + (z << 4);
+        Double surface = null;
+        IrisBiome caveBiome = null;
 
-            if (biome != null) {
-                biome.setInferredType(InferredType.CAVE);
-                BlockData d = biome.getWall().get(rng, i.getX() + (x << 4), i.getY(), i.getZ() + (z << 4), getData());
+        for (int y = columns.nextWall(rx, rz, 0); y >= 0; y = columns.nextWall(rx, rz, y + 1)) {
+            MatterCavern v = columns.getWall(rx, y, rz);
+            IrisBiome biome;
 
-                if (d != null && B.isSolid(output.get(i.getX(), i.getY(), i.getZ())) && i.getY() <= context.getHeight().get(i.getX(), i.getZ())) {
-                    output.set(i.getX(), i.getY(), i.getZ(), d);
+            if (v.getCustomBiome().isEmpty()) {
+                if (caveBiome == null) {
+                    caveBiome = getEngine().getCaveBiome(wx, wz);
                 }
-            }
-        });
 
-        positions.forEach((k, v) -> {
-            if (v.isEmpty()) {
-                return;
+                biome = caveBiome;
+            } else {
+                biome = getEngine().getData().getBiomeLoader().load(v.getCustomBiome());
             }
 
-            int rx = Cache.keyX(k);
-            int rz = Cache.keyZ(k);
-            v.sort(Integer::compare);
-            CaveZone zone = new CaveZone();
-            zone.setFloor(v.get(0));
-            int buf = v.get(0) - 1;
+            if (biome != null) {
+                biome.setInferredType(InferredType.CAVE);
+                BlockData d = biome.getWall().get(rng, wx, y, wz, getData());
 
-            for (Integer i : v) {
-                if (i < 0 || i > getEngine().getHeight()) {
-                    continue;
+                if (surface == null) {
+                    surface = context.getHeight().get(rx, rz);
                 }
 
-                if (i == buf + 1) {
-                    buf = i;
-                    zone.ceiling = buf;
-                } else if (zone.isValid(getEngine())) {
-                    processZone(output, mc, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
-                    zone = new CaveZone();
-                    zone.setFloor(i);
-                    buf = i;
+                if (d != null && B.isSolid(output.get(rx, y, rz)) && y <= surface) {
+                    output.set(rx, y, rz, d);
                 }
             }
+        }
+    }
 
-            if (zone.isValid(getEngine())) {
-                processZone(output, mc, mantle, zone, rx, rz, rx + (x << 4), rz + (z << 4));
+    /**
+     * Split the carved column into runs of air and process them bottom up. A run which is too
+     * thin to be a zone ends the column, nothing above it is decorated.
+     */
+    private void processColumn(Hunk<BlockData> output, CaveColumns columns, Mantle mantle, int rx, int rz, int xx, int zz) {
+        for (int floor = columns.nextCarved(rx, rz, 0); floor >= 0; ) {
+            int end = columns.nextUncarved(rx, rz, floor);
+            CaveZone zone = new CaveZone();
+            zone.setFloor(floor);
+            zone.setCeiling(end - 1);
+
+            if (!zone.isValid(getEngine())) {
+                return;
             }
-        });
 
-        getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
+            processZone(output, columns, mantle, zone, rx, rz, xx, zz);
+            floor = columns.nextCarved(rx, rz, end);
+        }
     }
 
-    private void processZone(Hunk<BlockData> output, MantleChunk mc, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
+    private void processZone(Hunk<BlockData> output, CaveColumns columns, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
         boolean decFloor = B.isSolid(output.getClosest(rx, zone.floor - 1, rz));
         boolean decCeiling = B.isSolid(output.getClosest(rx, zone.ceiling + 1, rz));
         int center = (zone.floor + zone.ceiling) / 2;
@@ -192,8 +217,7 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         }
 
         for (int i = zone.floor; i <= zone.ceiling; i++) {
-            MatterCavern cavernData = (MatterCavern) mc.getOrCreate(i >> 4).slice(MatterCavern.class)
-                    .get(rx, i & 15, rz);
+            MatterCavern cavernData = columns.getCarved(rx, i, rz);
 
             if (cavernData != null && !cavernData.getCustomBiome().isEmpty()) {
                 customBiome = cavernData.getCustomBiome();
@@ -279,4 +303,171 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
             return floor + "-" + ceiling;
         }
     }
+
+    /**
+     * The caverns of a chunk as one bitset per column. Every column holds the caverns which are
+     * in the mantle, the caverns which were carved and the wall positions next to carved caverns.
+     * Cavern types of carved and wall positions are kept as ids into a small palette.
+     */
+    private static class CaveColumns {
+        private final int height;
+        private final int words;
+        private final long[] caverns;
+        private final long[] carved;
+        private final long[] walls;
+        private final char[] carvedTypes;
+        private final char[] wallTypes;
+        private final KList<MatterCavern> palette;
+        private final KMap<MatterCavern, Character> ids;
+        private MatterCavern last;
+        private char lastId;
+        private boolean empty;
+
+        private CaveColumns(int height) {
+            this.height = height;
+            this.words = (height + 63) >> 6;
+            this.caverns = new long[words << 8];
+            this.carved = new long[words << 8];
+            this.walls = new long[words << 8];
+            this.carvedTypes = new char[height << 8];
+            this.wallTypes = new char[height << 8];
+            this.palette = new KList<>();
+            this.ids = new KMap<>();
+            this.empty = true;
+            palette.add((MatterCavern) null);
+        }
+
+        private static int column(int x, int z) {
+            return (z << 4) | x;
+        }
+
+        private int word(int x, int y, int z) {
+            return (column(x, z) * words) + (y >> 6);
+        }
+
+        private int index(int x, int y, int z) {
+            return (column(x, z) * height) + y;
+        }
+
+        private char id(MatterCavern c) {
+            if (c != last) {
+                lastId = ids.computeIfAbsent(c, (k) -> {
+                    palette.add(k);
+                    return (char) (palette.size() - 1);
+                });
+                last = c;
+            }
+
+            return lastId;
+        }
+
+        public boolean isEmpty() {
+            return empty;
+        }
+
+        public void setCavern(int x, int y, int z) {
+            caverns[word(x, y, z)] |= 1L << (y & 63);
+        }
+
+        public void setCarved(int x, int y, int z, MatterCavern c) {
+            carved[word(x, y, z)] |= 1L << (y & 63);
+            carvedTypes[index(x, y, z)] = id(c);
+            empty = false;
+        }
+
+        public MatterCavern getCarved(int x, int y, int z) {
+            return palette.get(carvedTypes[index(x, y, z)]);
+        }
+
+        public MatterCavern getWall(int x, int y, int z) {
+            return palette.get(wallTypes[index(x, y, z)]);
+        }
+
+        /**
+         * Mark every position next to a carved cavern which is not a cavern itself as a wall,
+         * taking the type of the carved cavern. Neighbours outside of the chunk are skipped.
+         */
+        public void computeWalls() {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    if (z < 15) {
+                        computeWalls(x, z, x, z + 1);
+                    }
+
+                    if (x < 15) {
+                        computeWalls(x, z, x + 1, z);
+                    }
+
+                    if (z > 0) {
+                        computeWalls(x, z, x, z - 1);
+                    }
+
+                    if (x > 0) {
+                        computeWalls(x, z, x - 1, z);
+                    }
+                }
+            }
+        }
+
+        private void computeWalls(int x, int z, int nx, int nz) {
+            int from = column(x, z) * words;
+            int to = column(nx, nz) * words;
+
+            for (int i = 0; i < words; i++) {
+                long bits = carved[from + i] & ~caverns[to + i];
+                walls[to + i] |= bits;
+
+                while (bits != 0) {
+                    int y = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    wallTypes[index(nx, y, nz)] = carvedTypes[index(x, y, z)];
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        /**
+         * @return the lowest carved y at or above from or -1
+         */
+        public int nextCarved(int x, int z, int from) {
+            return next(carved, x, z, from, false);
+        }
+
+        /**
+         * @return the lowest y at or above from which is not carved, or the height
+         */
+        public int nextUncarved(int x, int z, int from) {
+            int y = next(carved, x, z, from, true);
+            return y < 0 ? height : y;
+        }
+
+        /**
+         * @return the lowest wall y at or above from or -1
+         */
+        public int nextWall(int x, int z, int from) {
+            return next(walls, x, z, from, false);
+        }
+
+        private int next(long[] bits, int x, int z, int from, boolean clear) {
+            if (from >= height) {
+                return -1;
+            }
+
+            int base = column(x, z) * words;
+            int i = from >> 6;
+            long w = (clear ? ~bits[base + i] : bits[base + i]) & (-1L << (from & 63));
+
+            while (true) {
+                if (w != 0) {
+                    int y = (i << 6) + Long.numberOfTrailingZeros(w);
+                    return y < height ? y : -1;
+                }
+
+                if (++i >= words) {
+                    return -1;
+                }
+
+                w = clear ? ~bits[base + i] : bits[base + i];
+            }
+        }
+    }
 }
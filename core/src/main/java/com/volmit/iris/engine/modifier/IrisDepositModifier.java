@@ -23,13 +23,10 @@ import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.engine.object.*;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
-import com.volmit.iris.util.data.HeightMap;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.math.RNG;
-import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.block.data.BlockData;
-import org.bukkit.util.BlockVector;
 
 public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
     private final RNG rng;
@@ -46,31 +43,36 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
         getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
     }
 
+    /**
+     * Generate the deposits of the dimension, region and biome of a chunk. Deposits share one
+     * height plane and one cavern mask of the chunk and are placed one after another, every
+     * clump is a short copy loop over its precomputed shape.
+     */
     public void generateDeposits(Hunk<BlockData> terrain, int x, int z, boolean multicore, ChunkContext context) {
         IrisRegion region = context.getRegion().get(7, 7);
         IrisBiome biome = context.getBiome().get(7, 7);
-        BurstExecutor burst = burst().burst(multicore);
 
+        if (getDimension().getDeposits().isEmpty() && region.getDeposits().isEmpty() && biome.getDeposits().isEmpty()) {
+            return;
+        }
+
+        DepositChunk chunk = new DepositChunk(x, z, context);
         long seed = x * 341873128712L + z * 132897987541L;
+
         for (IrisDepositGenerator k : getDimension().getDeposits()) {
-            burst.queue(() -> generate(k, terrain, rng.nextParallelRNG(seed), x, z, false, context));
+            generate(k, terrain, rng.nextParallelRNG(seed), chunk);
         }
 
         for (IrisDepositGenerator k : region.getDeposits()) {
-            burst.queue(() -> generate(k, terrain, rng.nextParallelRNG(seed), x, z, false, context));
+            generate(k, terrain, rng.nextParallelRNG(seed), chunk);
         }
 
         for (IrisDepositGenerator k : biome.getDeposits()) {
-            burst.queue(() -> generate(k, terrain, rng.nextParallelRNG(seed), x, z, false, context));
+            generate(k, terrain, rng.nextParallelRNG(seed), chunk);
         }
-        burst.complete();
-    }
-
-    public void generate(IrisDepositGenerator k, Hunk<BlockData> data, RNG rng, int cx, int cz, boolean safe, ChunkContext context) {
-        generate(k, data, rng, cx, cz, safe, null, context);
     }
 
-    public void generate(IrisDepositGenerator k, Hunk<BlockData> data, RNG rng, int cx, int cz, boolean safe, HeightMap he, ChunkContext context) {
+    private void generate(IrisDepositGenerator k, Hunk<BlockData> data, RNG rng, DepositChunk chunk) {
         if (k.getSpawnChance() < rng.d())
             return;
 
@@ -78,9 +80,9 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
             if (k.getPerClumpSpawnChance() < rng.d())
                 continue;
 
-            IrisObject clump = k.getClump(rng, getData());
+            DepositClump clump = k.getClump(rng, getData());
 
-            int dim = clump.getW();
+            int dim = clump.getSize();
             int min = dim / 2;
             int max = (int) (16D - dim / 2D);
 
@@ -91,9 +93,7 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
 
             int x = rng.i(min, max + 1);
             int z = rng.i(min, max + 1);
-            int height = (he != null ? he.getHeight((cx << 4) + x, (cz << 4) + z) : (int) (Math.round(
-                    context.getHeight().get(x, z)
-            ))) - 7;
+            int height = chunk.getHeight(x, z) - 7;
 
             if (height <= 0)
                 continue;
@@ -110,19 +110,63 @@ public class IrisDepositModifier extends EngineAssignedModifier<BlockData> {
             if (y > k.getMaxHeight() || y < k.getMinHeight() || y > height - 2)
                 continue;
 
-            for (BlockVector j : clump.getBlocks().keySet()) {
-                int nx = j.getBlockX() + x;
-                int ny = j.getBlockY() + y;
-                int nz = j.getBlockZ() + z;
+            int top = Math.min(height, getEngine().getHeight());
+            CavernMask mask = chunk.getMask();
 
-                if (ny > height || nx > 15 || nx < 0 || ny > getEngine().getHeight() || ny < 0 || nz < 0 || nz > 15) {
+            // Clump blocks are sorted by y, nothing above the top can be placed
+            for (int i = 0; i < clump.size(); i++) {
+                int ny = clump.getY(i) + y;
+
+                if (ny > top) {
+                    break;
+                }
+
+                int nx = clump.getX(i) + x;
+                int nz = clump.getZ(i) + z;
+
+                if (nx > 15 || nx < 0 || ny < 0 || nz < 0 || nz > 15) {
                     continue;
                 }
 
-                if (!getEngine().getMantle().isCarved((cx << 4) + nx, ny, (cz << 4) + nz)) {
-                    data.set(nx, ny, nz, B.toDeepSlateOre(data.get(nx, ny, nz), clump.getBlocks().get(j)));
+                if (!mask.isCarved(nx, ny, nz)) {
+                    data.set(nx, ny, nz, clump.getOre(i, B.isDeepSlate(data.get(nx, ny, nz))));
                 }
             }
         }
     }
+
+    /**
+     * The rounded heights of a chunk and its cavern mask, read once and shared by every
+     * deposit of the chunk. The mask is only read once a clump is placed.
+     */
+    private class DepositChunk {
+        private final int x;
+        private final int z;
+        private final int[] heights;
+        private CavernMask mask;
+
+        private DepositChunk(int x, int z, ChunkContext context) {
+            this.x = x;
+            this.z = z;
+            this.heights = new int[256];
+
+            for (int i = 0; i < 16; i++) {
+                for (int j = 0; j < 16; j++) {
+                    heights[(j << 4) | i] = (int) Math.round(context.getHeight().get(i, j));
+                }
+            }
+        }
+
+        private int getHeight(int x, int z) {
+            return heights[(z << 4) | x];
+        }
+
+        private CavernMask getMask() {
+            if (mask == null) {
+                mask = CavernMask.of(getEngine().getMantle().getMantle(), x, z, getEngine().getHeight());
+            }
+
+            return mask;
+        }
+    }
 }
@@ -33,11 +33,10 @@ import org.bukkit.block.data.MultipleFacing;
 import org.bukkit.block.data.Waterlogged;
 import org.bukkit.block.data.type.Slab;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     private static final BlockData AIR = B.get("AIR");
     private static final BlockData WATER = B.get("WATER");
+    private static final int PADDED = 18;
     private final RNG rng;
 
     public IrisPostModifier(Engine engine) {
@@ -48,26 +47,40 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     @Override
     public void onModify(int x, int z, Hunk<BlockData> output, boolean multicore, ChunkContext context) {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        AtomicInteger i = new AtomicInteger();
-        AtomicInteger j = new AtomicInteger();
-        Hunk<BlockData> sync = output.synchronize();
-        for (i.set(0); i.get() < output.getWidth(); i.getAndIncrement()) {
-            for (j.set(0); j.get() < output.getDepth(); j.getAndIncrement()) {
-                int ii = i.get();
-                int jj = j.get();
-                post(ii, jj, sync, ii + x, jj + z, context);
+        int[] heights = heights(x, z);
+
+        for (int i = 0; i < output.getWidth(); i++) {
+            for (int j = 0; j < output.getDepth(); j++) {
+                post(i, j, output, i + x, j + z, heights, context);
             }
         }
 
         getEngine().getMetrics().getPost().put(p.getMilliseconds());
     }
 
-    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, ChunkContext context) {
-        int h = getEngine().getMantle().trueHeight(x, z);
-        int ha = getEngine().getMantle().trueHeight(x + 1, z);
-        int hb = getEngine().getMantle().trueHeight(x, z + 1);
-        int hc = getEngine().getMantle().trueHeight(x - 1, z);
-        int hd = getEngine().getMantle().trueHeight(x, z - 1);
+    /**
+     * Sample the true heights of the chunk and a one block border in one plane fill. The
+     * height of (x + i, z + j) for i and j in -1 to 16 is at ((j + 1) * PADDED) + i + 1.
+     */
+    private int[] heights(int x, int z) {
+        double[] plane = new double[PADDED * PADDED];
+        getComplex().getRoundedHeighteightStream().fill2D(x - 1, z - 1, PADDED, PADDED, plane);
+        int[] heights = new int[plane.length];
+
+        for (int i = 0; i < plane.length; i++) {
+            heights[i] = (int) plane[i];
+        }
+
+        return heights;
+    }
+
+    private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, int[] heights, ChunkContext context) {
+        int c = ((currentPostZ + 1) * PADDED) + currentPostX + 1;
+        int h = heights[c];
+        int ha = heights[c + 1];
+        int hb = heights[c + PADDED];
+        int hc = heights[c - 1];
+        int hd = heights[c - PADDED];
 
         // Floating Nibs
         int g = 0;
@@ -223,14 +236,15 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         // Foliage
         b = getPostBlock(x, h + 1, z, currentPostX, currentPostZ, currentData);
 
-        if (B.isVineBlock(b) && b instanceof MultipleFacing f) {
+        if (B.isVineBlock(b) && b instanceof MultipleFacing) {
+            MultipleFacing f = (MultipleFacing) b.clone();
             int finalH = h + 1;
 
             f.getAllowedFaces().forEach(face -> {
                 BlockData d = getPostBlock(x + face.getModX(), finalH + face.getModY(), z + face.getModZ(), currentPostX, currentPostZ, currentData);
                 f.setFace(face, !B.isAir(d) && !B.isVineBlock(d));
             });
-            setPostBlock(x, h + 1, z, b, currentPostX, currentPostZ, currentData);
+            setPostBlock(x, h + 1, z, f, currentPostX, currentPostZ, currentData);
         }
 
         if (B.isFoliage(b) || b.getMaterial().equals(Material.DEAD_BUSH)) {
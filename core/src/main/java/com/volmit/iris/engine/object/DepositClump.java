@@ -0,0 +1,107 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.util.data.B;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * The placeable shape of one deposit clump variant. Blocks are kept as plain arrays sorted
+ * by y, relative to the clump center, with the ore already resolved for both host rocks.
+ */
+public class DepositClump {
+    private final int size;
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final BlockData[] ores;
+    private final BlockData[] deepslateOres;
+
+    private DepositClump(IrisObject object) {
+        PackedObjectBlocks packed = object.getPackedBlocks();
+        BlockData[] normal = new BlockData[packed.getPaletteSize()];
+        BlockData[] deepslate = new BlockData[normal.length];
+
+        for (int i = 0; i < normal.length; i++) {
+            BlockData ore = packed.getPalette(i);
+            normal[i] = B.toDeepSlateOre(false, ore);
+            deepslate[i] = B.toDeepSlateOre(true, ore);
+        }
+
+        size = object.getW();
+        x = new int[packed.size()];
+        y = new int[packed.size()];
+        z = new int[packed.size()];
+        ores = new BlockData[packed.size()];
+        deepslateOres = new BlockData[packed.size()];
+
+        for (int i = 0; i < packed.size(); i++) {
+            x[i] = packed.getX(i);
+            y[i] = packed.getY(i);
+            z[i] = packed.getZ(i);
+            ores[i] = normal[packed.getPaletteId(i)];
+            deepslateOres[i] = deepslate[packed.getPaletteId(i)];
+        }
+    }
+
+    /**
+     * Create the shape of a clump object
+     *
+     * @param object the clump object
+     * @return the clump shape
+     */
+    public static DepositClump of(IrisObject object) {
+        return new DepositClump(object);
+    }
+
+    /**
+     * @return the width of the clump object
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    public int getZ(int i) {
+        return z[i];
+    }
+
+    /**
+     * Get the ore of a block for the rock it replaces
+     *
+     * @param i         the block index
+     * @param deepslate if the replaced rock is deepslate
+     * @return the ore
+     */
+    public BlockData getOre(int i, boolean deepslate) {
+        return deepslate ? deepslateOres[i] : ores[i];
+    }
+}
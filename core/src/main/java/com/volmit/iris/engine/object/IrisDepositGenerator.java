@@ -38,7 +38,7 @@ import org.bukkit.block.data.BlockData;
 @Desc("Creates ore & other block deposits underground")
 @Data
 public class IrisDepositGenerator {
-    private final transient AtomicCache<KList<IrisObject>> objects = new AtomicCache<>();
+    private final transient AtomicCache<KList<DepositClump>> clumps = new AtomicCache<>();
     private final transient AtomicCache<KList<BlockData>> blockData = new AtomicCache<>();
     @Required
     @MinNumber(0)
@@ -87,19 +87,27 @@ public class IrisDepositGenerator {
     @Desc("Ore varience is how many different objects clumps iris will create")
     private int varience = 3;
 
-    public IrisObject getClump(RNG rng, IrisData rdata) {
-        KList<IrisObject> objects = this.objects.aquire(() ->
+    /**
+     * Pick one of the clump variants of this generator. The variants are generated and
+     * turned into placeable shapes once.
+     *
+     * @param rng   the rng to pick with
+     * @param rdata the data to resolve the palette with
+     * @return the clump shape
+     */
+    public DepositClump getClump(RNG rng, IrisData rdata) {
+        KList<DepositClump> clumps = this.clumps.aquire(() ->
         {
             RNG rngv = rng.nextParallelRNG(3957778);
-            KList<IrisObject> objectsf = new KList<>();
+            KList<DepositClump> clumpsf = new KList<>();
 
             for (int i = 0; i < varience; i++) {
-                objectsf.add(generateClumpObject(rngv.nextParallelRNG(2349 * i + 3598), rdata));
+                clumpsf.add(DepositClump.of(generateClumpObject(rngv.nextParallelRNG(2349 * i + 3598), rdata)));
             }
 
-            return objectsf;
+            return clumpsf;
         });
-        return objects.get(rng.i(0, objects.size()));
+        return clumps.get(rng.i(0, clumps.size()));
     }
 
     public int getMaxDimension() {
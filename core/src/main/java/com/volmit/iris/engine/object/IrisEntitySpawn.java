@@ -26,7 +26,6 @@ import com.volmit.iris.engine.object.annotations.*;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.math.Vector3d;
-import com.volmit.iris.util.matter.MatterMarker;
 import com.volmit.iris.util.matter.slices.MarkerMatter;
 import io.lumine.mythic.bukkit.adapters.BukkitEntity;
 import lombok.AllArgsConstructor;
@@ -117,7 +116,7 @@ public class IrisEntitySpawn implements IRare {
         if (spawns > 0) {
 
             if (referenceMarker != null) {
-                gen.getMantle().getMantle().remove(c.getX(), c.getY(), c.getZ(), MatterMarker.class);
+                gen.getWorldManager().removeMarker(c.getX(), c.getY(), c.getZ());
             }
 
             for (int id = 0; id < spawns; id++) {
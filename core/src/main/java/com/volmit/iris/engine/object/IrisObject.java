@@ -86,8 +86,11 @@ public class IrisObject extends IrisRegistrant {
     protected transient IrisLock lock = new IrisLock("Preloadcache");
     @Setter
     protected transient AtomicCache<AxisAlignedBB> aabb = new AtomicCache<>();
+    @EqualsAndHashCode.Exclude
     private KMap<BlockVector, BlockData> blocks;
+    @EqualsAndHashCode.Exclude
     private KMap<BlockVector, TileData> states;
+    private transient PackedObjectBlocks packed;
     @Getter
     @Setter
     private int w;
@@ -169,6 +172,7 @@ public class IrisObject extends IrisRegistrant {
             lock.unlock();
             Iris.warn("Cannot Smart Bore " + getLoadKey() + " because it has 0 blocks in it.");
             smartBored = true;
+            compact();
             return;
         }
 
@@ -275,6 +279,7 @@ public class IrisObject extends IrisRegistrant {
 
         burst.complete();
         smartBored = true;
+        compact();
         lock.unlock();
         Iris.debug("Smart Bore: " + getLoadKey() + " in " + Form.duration(p.getMilliseconds(), 2) + " (" + Form.f(applied.get()) + ")");
     }
@@ -286,6 +291,13 @@ public class IrisObject extends IrisRegistrant {
         o.setLoadFile(getLoadFile());
         o.setCenter(getCenter().clone());
 
+        if (packed != null) {
+            o.blocks = null;
+            o.states = null;
+            o.packed = packed;
+            return o;
+        }
+
         for (BlockVector i : getBlocks().keySet()) {
             o.getBlocks().put(i.clone(), Objects.requireNonNull(getBlocks().get(i)).clone());
         }
@@ -319,6 +331,8 @@ public class IrisObject extends IrisRegistrant {
             Iris.reportError(e);
 
         }
+
+        compact();
     }
 
     public void read(InputStream in) throws Throwable {
@@ -326,29 +340,50 @@ public class IrisObject extends IrisRegistrant {
         this.w = din.readInt();
         this.h = din.readInt();
         this.d = din.readInt();
-        if (!din.readUTF().equals("Iris V2 IOB;")) {
+        String format = din.readUTF();
+
+        if (format.equals("Iris V3 IOB;")) {
+            center = new BlockVector(w / 2, h / 2, d / 2);
+            setPacked(PackedObjectBlocks.read(din));
+            return;
+        }
+
+        if (!format.equals("Iris V2 IOB;")) {
             return;
         }
         center = new BlockVector(w / 2, h / 2, d / 2);
         int s = din.readShort();
         int i;
-        KList<String> palette = new KList<>();
+        BlockData[] palette = new BlockData[s];
 
         for (i = 0; i < s; i++) {
-            palette.add(din.readUTF());
+            palette[i] = B.get(din.readUTF());
         }
 
         s = din.readInt();
+        long[] entries = new long[s];
 
         for (i = 0; i < s; i++) {
-            getBlocks().put(new BlockVector(din.readShort(), din.readShort(), din.readShort()), B.get(palette.get(din.readShort())));
+            int x = din.readShort();
+            int y = din.readShort();
+            int z = din.readShort();
+            int id = din.readShort() & 0xFFFF;
+
+            if (id >= palette.length) {
+                throw new IOException("Invalid palette index " + id + " of " + palette.length);
+            }
+
+            entries[i] = PackedObjectBlocks.pack(x, y, z) | id;
         }
 
         s = din.readInt();
+        KMap<BlockVector, TileData> states = new KMap<>();
 
         for (i = 0; i < s; i++) {
-            getStates().put(new BlockVector(din.readShort(), din.readShort(), din.readShort()), TileData.read(din));
+            states.put(new BlockVector(din.readShort(), din.readShort(), din.readShort()), TileData.read(din));
         }
+
+        setPacked(PackedObjectBlocks.of(palette, entries, states));
     }
 
     public void write(OutputStream o) throws IOException {
@@ -356,42 +391,16 @@ public class IrisObject extends IrisRegistrant {
         dos.writeInt(w);
         dos.writeInt(h);
         dos.writeInt(d);
-        dos.writeUTF("Iris V2 IOB;");
-        KList<String> palette = new KList<>();
-
-        for (BlockData i : getBlocks().values()) {
-            palette.addIfMissing(i.getAsString());
-        }
-
-        dos.writeShort(palette.size());
-
-        for (String i : palette) {
-            dos.writeUTF(i);
-        }
-
-        dos.writeInt(getBlocks().size());
-
-        for (BlockVector i : getBlocks().keySet()) {
-            dos.writeShort(i.getBlockX());
-            dos.writeShort(i.getBlockY());
-            dos.writeShort(i.getBlockZ());
-            dos.writeShort(palette.indexOf(getBlocks().get(i).getAsString()));
-        }
-
-        dos.writeInt(getStates().size());
-        for (BlockVector i : getStates().keySet()) {
-            dos.writeShort(i.getBlockX());
-            dos.writeShort(i.getBlockY());
-            dos.writeShort(i.getBlockZ());
-            getStates().get(i).toBinary(dos);
-        }
+        dos.writeUTF("Iris V3 IOB;");
+        getPackedBlocks().write(dos);
+        dos.flush();
     }
 
     public void write(OutputStream o, VolmitSender sender) throws IOException {
         AtomicReference<IOException> ref = new AtomicReference<>();
         CountDownLatch latch = new CountDownLatch(1);
         new Job() {
-            private int total = getBlocks().size() * 3 + getStates().size();
+            private final int total = Math.max(getBlockCount(), 1) * 2;
             private int c = 0;
 
             @Override
@@ -406,41 +415,12 @@ public class IrisObject extends IrisRegistrant {
                     dos.writeInt(w);
                     dos.writeInt(h);
                     dos.writeInt(d);
-                    dos.writeUTF("Iris V2 IOB;");
-
-                    KList<String> palette = new KList<>();
-
-                    for (BlockData i : getBlocks().values()) {
-                        palette.addIfMissing(i.getAsString());
-                        ++c;
-                    }
-                    total -= getBlocks().size() - palette.size();
-
-                    dos.writeShort(palette.size());
-
-                    for (String i : palette) {
-                        dos.writeUTF(i);
-                        ++c;
-                    }
-
-                    dos.writeInt(getBlocks().size());
-
-                    for (BlockVector i : getBlocks().keySet()) {
-                        dos.writeShort(i.getBlockX());
-                        dos.writeShort(i.getBlockY());
-                        dos.writeShort(i.getBlockZ());
-                        dos.writeShort(palette.indexOf(getBlocks().get(i).getAsString()));
-                        ++c;
-                    }
-
-                    dos.writeInt(getStates().size());
-                    for (BlockVector i : getStates().keySet()) {
-                        dos.writeShort(i.getBlockX());
-                        dos.writeShort(i.getBlockY());
-                        dos.writeShort(i.getBlockZ());
-                        getStates().get(i).toBinary(dos);
-                        ++c;
-                    }
+                    dos.writeUTF("Iris V3 IOB;");
+                    PackedObjectBlocks packed = getPackedBlocks();
+                    c = total / 2;
+                    packed.write(dos);
+                    dos.flush();
+                    c = total;
                 } catch (IOException e) {
                     ref.set(e);
                 } finally {
@@ -601,7 +581,7 @@ public class IrisObject extends IrisRegistrant {
         if (rdata != null) {
             // Slope condition
             if (!config.getSlopeCondition().isDefault() &&
-                    !config.getSlopeCondition().isValid(rdata.getEngine().getComplex().getSlopeStream().get(x, z)) && !config.isForcePlace()) {
+                    !config.getSlopeCondition().isValid(rdata.getEngine().getComplex().getSlopeStream().getDouble(x, z)) && !config.isForcePlace()) {
                 return -1;
             }
 
@@ -879,13 +859,20 @@ public class IrisObject extends IrisRegistrant {
                     }
 
                     int max = j.getMaximumMarkers();
+                    PackedObjectBlocks packed = getPackedBlocks();
+                    KList<Integer> order = new KList<>(packed.size());
 
-                    for (BlockVector i : getBlocks().k().shuffle()) {
+                    for (int n = 0; n < packed.size(); n++) {
+                        order.add(n);
+                    }
+
+                    for (int n : order.shuffle()) {
                         if (max <= 0) {
                             break;
                         }
 
-                        BlockData data = getBlocks().get(i);
+                        BlockVector i = packed.getPosition(n);
+                        BlockData data = packed.getData(n);
 
                         for (BlockData k : j.getMark(rdata)) {
                             if (max <= 0) {
@@ -893,8 +880,8 @@ public class IrisObject extends IrisRegistrant {
                             }
 
                             if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                boolean a = !blocks.containsKey(new BlockVector(i.clone().add(new BlockVector(0, 1, 0))));
-                                boolean fff = !blocks.containsKey(new BlockVector(i.clone().add(new BlockVector(0, 2, 0))));
+                                boolean a = !packed.contains(i.getBlockX(), i.getBlockY() + 1, i.getBlockZ());
+                                boolean fff = !packed.contains(i.getBlockX(), i.getBlockY() + 2, i.getBlockZ());
 
                                 if (!marker.isEmptyAbove() || (a && fff)) {
                                     markers.put(i, j.getMarker());
@@ -906,58 +893,61 @@ public class IrisObject extends IrisRegistrant {
                 }
             }
 
-            for (BlockVector g : getBlocks().keySet()) {
-                BlockData d;
-                TileData tile = null;
+            IrisObjectVariant variant = IrisObjectVariant.of(this, config.getRotation(), spinx, spiny, spinz);
+            BlockVector offset = config.getTranslate().translate(new BlockVector(0, 0, 0), config.getRotation(), spinx, spiny, spinz);
+            double ox = offset.getX();
+            double oy = offset.getY();
+            double oz = offset.getZ();
+            boolean editing = config.getEdit().isNotEmpty();
 
-                try {
-                    d = getBlocks().get(g);
-                    tile = getStates().get(g);
-                } catch (Throwable e) {
-                    Iris.reportError(e);
-                    Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (cme)");
-                    d = AIR;
-                }
+            for (int n = 0; n < variant.size(); n++) {
+                BlockVector g = variant.getSource(n);
+                BlockVector i = new BlockVector(variant.getX(n) + ox, variant.getY(n) + oy, variant.getZ(n) + oz);
+                TileData tile = variant.getTile(n);
+                BlockData data = variant.getData(n);
 
-                if (d == null) {
+                if (data == null) {
                     Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (null)");
-                    d = AIR;
+                    data = AIR;
                 }
 
-                BlockVector i = g.clone();
-                BlockData data = d.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
-
                 if (stilting && i.getBlockY() < lowest && !B.isAir(data)) {
                     lowest = i.getBlockY();
                 }
 
-                if (placer.isPreventingDecay() && (data) instanceof Leaves && !((Leaves) (data)).isPersistent()) {
-                    ((Leaves) data).setPersistent(true);
-                }
-
-                for (IrisObjectReplace j : config.getEdit()) {
-                    if (rng.chance(j.getChance())) {
-                        for (BlockData k : j.getFind(rdata)) {
-                            if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
-                                BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
-
-                                if (newData.getMaterial() == data.getMaterial() && !(newData instanceof IrisBlockData || data instanceof IrisBlockData))
-                                    data = data.merge(newData);
-                                else
-                                    data = newData;
-
-                                Optional<TileData> t = j.getReplace().getTile(rng, x, y, z, rdata);
-                                if (t.isPresent()) {
-                                    tile = t.get();
+                if (editing) {
+                    data = variant.getOriginal(n) == null ? AIR : variant.getOriginal(n).clone();
+                    boolean edited = false;
+
+                    for (IrisObjectReplace j : config.getEdit()) {
+                        if (rng.chance(j.getChance())) {
+                            for (BlockData k : j.getFind(rdata)) {
+                                if (j.isExact() ? k.matches(data) : k.getMaterial().equals(data.getMaterial())) {
+                                    BlockData newData = j.getReplace(rng, i.getX() + x, i.getY() + y, i.getZ() + z, rdata).clone();
+
+                                    if (newData.getMaterial() == data.getMaterial() && !(newData instanceof IrisBlockData || data instanceof IrisBlockData))
+                                        data = data.merge(newData);
+                                    else
+                                        data = newData;
+
+                                    edited = true;
+                                    Optional<TileData> t = j.getReplace().getTile(rng, x, y, z, rdata);
+                                    if (t.isPresent()) {
+                                        tile = t.get();
+                                    }
                                 }
                             }
                         }
                     }
+
+                    data = edited ? config.getRotation().rotate(data, spinx, spiny, spinz) : variant.getData(n) == null ? AIR : variant.getData(n);
+                }
+
+                if (placer.isPreventingDecay() && (data) instanceof Leaves && !((Leaves) (data)).isPersistent()) {
+                    data = data.clone();
+                    ((Leaves) data).setPersistent(true);
                 }
 
-                data = config.getRotation().rotate(data, spinx, spiny, spinz);
                 xx = x + (int) Math.round(i.getX());
 
                 int yy = y + (int) Math.round(i.getY());
@@ -988,12 +978,13 @@ public class IrisObject extends IrisRegistrant {
                     continue;
                 }
 
-                if ((config.isWaterloggable() || config.isUnderwater()) && yy <= placer.getFluidHeight() && data instanceof Waterlogged) {
-                    // TODO Here
+                if ((config.isWaterloggable() || config.isUnderwater()) && yy <= placer.getFluidHeight() && data instanceof Waterlogged && !((Waterlogged) data).isWaterlogged()) {
+                    data = data.clone();
                     ((Waterlogged) data).setWaterlogged(true);
                 }
 
                 if (B.isVineBlock(data)) {
+                    data = data.clone();
                     MultipleFacing f = (MultipleFacing) data;
                     for (BlockFace face : f.getAllowedFaces()) {
                         BlockData facingBlock = placer.get(xx + face.getModX(), yy + face.getModY(), zz + face.getModZ());
@@ -1029,33 +1020,24 @@ public class IrisObject extends IrisRegistrant {
         if (stilting) {
             readLock.lock();
             IrisStiltSettings settings = config.getStiltSettings();
-            for (BlockVector g : getBlocks().keySet()) {
-                BlockData d;
+            IrisObjectVariant variant = IrisObjectVariant.of(this, config.getRotation(), spinx, spiny, spinz);
+            BlockVector offset = config.getTranslate().translate(new BlockVector(0, 0, 0), config.getRotation(), spinx, spiny, spinz);
 
-                if (settings == null || settings.getPalette() == null) {
-                    try {
-                        d = getBlocks().get(g);
-                    } catch (Throwable e) {
-                        Iris.reportError(e);
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt cme)");
-                        d = AIR;
-                    }
+            for (int n = 0; n < variant.size(); n++) {
+                BlockVector i = new BlockVector(variant.getX(n) + offset.getX(), variant.getY(n) + offset.getY(), variant.getZ(n) + offset.getZ());
 
-                    if (d == null) {
-                        Iris.warn("Failed to read block node " + g.getBlockX() + "," + g.getBlockY() + "," + g.getBlockZ() + " in object " + getLoadKey() + " (stilt null)");
-                        d = AIR;
-                    }
-                } else
-                    d = config.getStiltSettings().getPalette().get(rng, x, y, z, rdata);
+                if (i.getBlockY() != lowest)
+                    continue;
 
+                BlockData d;
 
-                BlockVector i = g.clone();
-                i = config.getRotation().rotate(i.clone(), spinx, spiny, spinz).clone();
-                i = config.getTranslate().translate(i.clone(), config.getRotation(), spinx, spiny, spinz).clone();
-                d = config.getRotation().rotate(d, spinx, spiny, spinz);
+                if (settings == null || settings.getPalette() == null) {
+                    d = variant.getData(n) == null ? AIR : variant.getData(n).clone();
+                } else {
+                    d = config.getStiltSettings().getPalette().get(rng, x, y, z, rdata);
+                    d = config.getRotation().rotate(d.clone(), spinx, spiny, spinz);
+                }
 
-                if (i.getBlockY() != lowest)
-                    continue;
 
                 for (IrisObjectReplace j : config.getEdit()) {
                     if (rng.chance(j.getChance())) {
@@ -1086,8 +1068,10 @@ public class IrisObject extends IrisRegistrant {
 
                 int highest = placer.getHighest(xx, zz, getLoader(), true);
 
-                if ((config.isWaterloggable() || config.isUnderwater()) && highest <= placer.getFluidHeight() && d instanceof Waterlogged)
+                if ((config.isWaterloggable() || config.isUnderwater()) && highest <= placer.getFluidHeight() && d instanceof Waterlogged) {
+                    d = d.clone();
                     ((Waterlogged) d).setWaterlogged(true);
+                }
 
                 if (yv >= 0 && config.isBottom())
                     y += Math.floorDiv(h, 2);
@@ -1183,13 +1167,101 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public synchronized KMap<BlockVector, BlockData> getBlocks() {
+        inflate();
         return blocks;
     }
 
     public synchronized KMap<BlockVector, TileData> getStates() {
+        inflate();
         return states;
     }
 
+    /**
+     * Unpack the packed blocks into mutable maps. Anything which edits the object goes
+     * through here, placing only ever reads the packed blocks.
+     */
+    private synchronized void inflate() {
+        if (packed == null) {
+            return;
+        }
+
+        KMap<BlockVector, BlockData> b = new KMap<>();
+        KMap<BlockVector, TileData> t = new KMap<>();
+        packed.inflate(b, t);
+        blocks = b;
+        states = t;
+        packed = null;
+        reweigh();
+    }
+
+    private synchronized void setPacked(PackedObjectBlocks packed) {
+        this.packed = packed;
+        this.blocks = null;
+        this.states = null;
+    }
+
+    /**
+     * Drop the mutable maps and keep the blocks packed until the object is edited again
+     */
+    public synchronized void compact() {
+        if (packed == null) {
+            setPacked(PackedObjectBlocks.of(blocks, states));
+            reweigh();
+        }
+    }
+
+    /**
+     * Let the object loader weigh this object again, its storage changed between packed and unpacked
+     */
+    private void reweigh() {
+        if (getLoader() != null && getLoader().getObjectLoader() != null && getLoadKey() != null) {
+            getLoader().getObjectLoader().reweigh(getLoadKey(), this);
+        }
+    }
+
+    /**
+     * Get a read only packed view of the blocks. This compacts the object, so the
+     * palette is only rebuilt after the object has been edited through the maps.
+     *
+     * @return the packed blocks
+     */
+    public synchronized PackedObjectBlocks getPackedBlocks() {
+        compact();
+        return packed;
+    }
+
+    public synchronized boolean isPacked() {
+        return packed != null;
+    }
+
+    public synchronized int getBlockCount() {
+        return packed != null ? packed.size() : blocks.size();
+    }
+
+    /**
+     * Estimate the retained heap size of this object. Unpacked blocks cost a map entry,
+     * a vector and a reference each.
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getWeight() {
+        if (packed != null) {
+            return 256 + packed.getSize();
+        }
+
+        return 256 + (blocks.size() * 96L) + (states.size() * 128L);
+    }
+
+    /**
+     * Compare the blocks in whatever form the object holds them right now. This must not
+     * compact or lock the object, hashing it would otherwise change it.
+     */
+    @EqualsAndHashCode.Include
+    private Object getContents() {
+        PackedObjectBlocks p = packed;
+        return p != null ? p : Arrays.asList(blocks, states);
+    }
+
     public void unplaceCenterY(Location at) {
         for (BlockVector i : getBlocks().keySet()) {
             at.clone().add(getCenter().getX(), getCenter().getY(), getCenter().getZ()).add(i).getBlock().setBlockData(AIR, false);
@@ -1220,7 +1292,7 @@ public class IrisObject extends IrisRegistrant {
 
         IrisObject oo = new IrisObject((int) Math.ceil((w * scale) + (scale * 2)), (int) Math.ceil((h * scale) + (scale * 2)), (int) Math.ceil((d * scale) + (scale * 2)));
 
-        for (Map.Entry<BlockVector, BlockData> entry : blocks.entrySet()) {
+        for (Map.Entry<BlockVector, BlockData> entry : getBlocks().entrySet()) {
             BlockData bd = entry.getValue();
             placeBlock.put(entry.getKey().clone().add(HALF).subtract(center)
                     .multiply(scale).add(sm1).toBlockVector(), bd);
@@ -1349,7 +1421,7 @@ public class IrisObject extends IrisRegistrant {
 
         double d = Double.MAX_VALUE;
 
-        for (Map.Entry<BlockVector, BlockData> entry : blocks.entrySet()) {
+        for (Map.Entry<BlockVector, BlockData> entry : getBlocks().entrySet()) {
             BlockData dat = entry.getValue();
 
             if (dat.getMaterial().isAir()) {
@@ -1368,7 +1440,7 @@ public class IrisObject extends IrisRegistrant {
     }
 
     public int volume() {
-        return blocks.size();
+        return getBlockCount();
     }
 
     @Override
@@ -0,0 +1,272 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.volmit.iris.core.IrisSettings;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+
+/**
+ * A pre rotated view of an object for one rotation. Positions are rotated but not translated
+ * and every palette entry is rotated once, so placing the variant is a straight copy loop.
+ * Positions are kept packed like {@link PackedObjectBlocks} and blocks point into the palettes,
+ * so a variant costs a few bytes per block. Variants are shared by every placer through a
+ * global cache weighed by their size.
+ * <p>
+ * Rotated block data is shared between placements. Callers must clone it before mutating it.
+ */
+public class IrisObjectVariant {
+    private static final Cache<Key, Object> cache = Caffeine.newBuilder()
+            .maximumWeight(Math.max(IrisSettings.get().getPerformance().getObjectVariantCacheMB(), 1) * 1024L * 1024L)
+            .weigher((Key k, Object v) -> (int) Math.min(Integer.MAX_VALUE, weigh(v)))
+            .build();
+
+    private final long[] sources;
+    private final long[] positions;
+    private final char[] ids;
+    private final BlockData[] originals;
+    private final BlockData[] palette;
+    private final TileData[] tiles;
+
+    private IrisObjectVariant(PackedObjectBlocks packed, IrisObjectRotation rotation, int spinx, int spiny, int spinz) {
+        int size = packed.size();
+        sources = new long[size];
+        positions = new long[size];
+        ids = new char[size];
+        originals = new BlockData[packed.getPaletteSize()];
+        palette = new BlockData[packed.getPaletteSize()];
+        tiles = packed.getTileCount() > 0 ? new TileData[size] : null;
+
+        for (int i = 0; i < palette.length; i++) {
+            BlockData d = packed.getPalette(i);
+            originals[i] = d;
+            palette[i] = d == null ? null : rotation.rotate(d.clone(), spinx, spiny, spinz);
+        }
+
+        for (int i = 0; i < size; i++) {
+            BlockVector v = rotation.rotate(packed.getPosition(i), spinx, spiny, spinz);
+            sources[i] = PackedObjectBlocks.pack(packed.getX(i), packed.getY(i), packed.getZ(i));
+            positions[i] = PackedObjectBlocks.pack((int) Math.round(v.getX()), (int) Math.round(v.getY()), (int) Math.round(v.getZ()));
+            ids[i] = (char) packed.getPaletteId(i);
+
+            if (tiles != null) {
+                tiles[i] = packed.getTile(i);
+            }
+        }
+    }
+
+    /**
+     * Get the variant of an object for the given rotation and spins
+     *
+     * @param object   the object
+     * @param rotation the rotation
+     * @param spinx    the x spin
+     * @param spiny    the y spin
+     * @param spinz    the z spin
+     * @return the cached or created variant
+     */
+    public static IrisObjectVariant of(IrisObject object, IrisObjectRotation rotation, int spinx, int spiny, int spinz) {
+        PackedObjectBlocks packed = object.getPackedBlocks();
+        Key key = new Key(object, packed, false, rotation, spinx, spiny, spinz);
+        return (IrisObjectVariant) cache.get(key, (k) -> new IrisObjectVariant(packed, rotation, spinx, spiny, spinz));
+    }
+
+    /**
+     * Get a rotated copy of an object, used where a whole object is needed such as jigsaw pieces
+     *
+     * @param object   the object
+     * @param rotation the rotation
+     * @return the cached or created copy
+     */
+    public static IrisObject copyOf(IrisObject object, IrisObjectRotation rotation) {
+        if (object == null) {
+            return null;
+        }
+
+        Key key = new Key(object, object.getPackedBlocks(), true, rotation, 0, 0, 0);
+        return (IrisObject) cache.get(key, (k) -> {
+            IrisObject o = rotation.rotateCopy(object);
+            o.compact();
+            return o;
+        });
+    }
+
+    /**
+     * @return the amount of cached variants and copies
+     */
+    public static long getCachedCount() {
+        return cache.estimatedSize();
+    }
+
+    public static void invalidate() {
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return sources.length;
+    }
+
+    /**
+     * @return the unrotated position of a block, as it is stored in the object
+     */
+    public BlockVector getSource(int i) {
+        long k = sources[i];
+        return new BlockVector(PackedObjectBlocks.unpackX(k), PackedObjectBlocks.unpackY(k), PackedObjectBlocks.unpackZ(k));
+    }
+
+    public int getX(int i) {
+        return PackedObjectBlocks.unpackX(positions[i]);
+    }
+
+    public int getY(int i) {
+        return PackedObjectBlocks.unpackY(positions[i]);
+    }
+
+    public int getZ(int i) {
+        return PackedObjectBlocks.unpackZ(positions[i]);
+    }
+
+    /**
+     * @return the rotated block data of a block
+     */
+    public BlockData getData(int i) {
+        return palette[ids[i]];
+    }
+
+    /**
+     * @return the unrotated block data of a block
+     */
+    public BlockData getOriginal(int i) {
+        return originals[ids[i]];
+    }
+
+    public TileData getTile(int i) {
+        return tiles == null ? null : tiles[i];
+    }
+
+    private static long weigh(Object v) {
+        if (v instanceof IrisObjectVariant variant) {
+            return 64 + (variant.size() * 18L) + (variant.tiles == null ? 0 : variant.size() * 8L) + (variant.palette.length * 72L);
+        }
+
+        if (v instanceof IrisObject object) {
+            return 64 + object.getPackedBlocks().getSize();
+        }
+
+        return 64;
+    }
+
+    /**
+     * Identifies a variant by the load key and packed storage of the object and the exact
+     * transform the rotation applies for the spins. Spins which resolve to the same angles
+     * share a variant. The storage is only weakly held, so the cache never keeps objects the
+     * loader has let go of alive. Such entries can't be hit anymore and age out.
+     */
+    private static class Key {
+        private final String loadKey;
+        private final WeakReference<PackedObjectBlocks> blocks;
+        private final boolean bored;
+        private final boolean copy;
+        private final int flags;
+        private final double vx;
+        private final double vy;
+        private final double vz;
+        private final double dx;
+        private final double dy;
+        private final double dz;
+        private final double mx;
+        private final double my;
+        private final double mz;
+        private final int hash;
+
+        private Key(IrisObject object, PackedObjectBlocks blocks, boolean copy, IrisObjectRotation rotation, int spinx, int spiny, int spinz) {
+            this.loadKey = object.getLoadKey();
+            this.blocks = new WeakReference<>(blocks);
+            this.bored = object.isSmartBored();
+            this.copy = copy;
+            this.flags = (rotation.canRotateX() ? 1 : 0)
+                    | (rotation.canRotateY() ? 2 : 0)
+                    | (rotation.canRotateZ() ? 4 : 0)
+                    | (rotation.getXAxis().isLocked() ? 8 : 0)
+                    | (rotation.getYAxis().isLocked() ? 16 : 0)
+                    | (rotation.getZAxis().isLocked() ? 32 : 0);
+            this.vx = rotation.getRotation(spinx, rotation.getXAxis());
+            this.vy = rotation.getRotation(spiny, rotation.getYAxis());
+            this.vz = rotation.getRotation(spinz, rotation.getZAxis());
+            this.dx = rotation.getRotation(quantize(spinx), rotation.getXAxis());
+            this.dy = rotation.getRotation(quantize(spiny), rotation.getYAxis());
+            this.dz = rotation.getRotation(quantize(spinz), rotation.getZAxis());
+            this.mx = rotation.getXAxis().isLocked() ? rotation.getXAxis().getMax() : 0;
+            this.my = rotation.getYAxis().isLocked() ? rotation.getYAxis().getMax() : 0;
+            this.mz = rotation.getZAxis().isLocked() ? rotation.getZAxis().getMax() : 0;
+
+            int h = Objects.hashCode(loadKey);
+            h = 31 * h + System.identityHashCode(blocks);
+            h = 31 * h + (bored ? 1 : 0);
+            h = 31 * h + (copy ? 1 : 0);
+            h = 31 * h + flags;
+            h = 31 * h + Double.hashCode(vx);
+            h = 31 * h + Double.hashCode(vy);
+            h = 31 * h + Double.hashCode(vz);
+            h = 31 * h + Double.hashCode(dx);
+            h = 31 * h + Double.hashCode(dy);
+            h = 31 * h + Double.hashCode(dz);
+            h = 31 * h + Double.hashCode(mx);
+            h = 31 * h + Double.hashCode(my);
+            h = 31 * h + Double.hashCode(mz);
+            this.hash = h;
+        }
+
+        /**
+         * Block data rotation snaps spins to right angles before rotating
+         */
+        private static int quantize(int spin) {
+            return (int) (90D * (Math.ceil(Math.abs((spin % 360D) / 90D))));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key k)) {
+                return false;
+            }
+
+            PackedObjectBlocks b = blocks.get();
+
+            return b != null && b == k.blocks.get() && Objects.equals(loadKey, k.loadKey) && bored == k.bored
+                    && copy == k.copy && flags == k.flags
+                    && vx == k.vx && vy == k.vy && vz == k.vz
+                    && dx == k.dx && dy == k.dy && dz == k.dz
+                    && mx == k.mx && my == k.my && mz == k.mz;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -106,7 +106,7 @@ public class IrisRavine extends IrisRegistrant {
 
         if (highestWater == -1) {
             for (IrisPosition i : pos) {
-                int rsurface = y == -1 ? engine.getComplex().getHeightStream().get(x, z).intValue() : y;
+                int rsurface = y == -1 ? (int) engine.getComplex().getHeightStream().getDouble(x, z) : y;
                 int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), i.getX(), i.getZ()));
                 int surface = (int) Math.round(rsurface - depth * 0.45);
                 int yy = surface + depth;
@@ -130,7 +130,7 @@ public class IrisRavine extends IrisRegistrant {
         }
 
         for (IrisPosition p : pos) {
-            int rsurface = y == -1 ? engine.getComplex().getHeightStream().get(x, z).intValue() : y;
+            int rsurface = y == -1 ? (int) engine.getComplex().getHeightStream().getDouble(x, z) : y;
             int depth = (int) Math.round(dg.fitDouble(depthStyle.getMin(), depthStyle.getMax(), p.getX(), p.getZ()));
             int width = (int) Math.round(bw.fitDouble(baseWidthStyle.getMin(), baseWidthStyle.getMax(), p.getX(), p.getZ()));
             int surface = (int) Math.round(rsurface - depth * 0.45);
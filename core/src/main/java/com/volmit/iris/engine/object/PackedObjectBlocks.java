@@ -0,0 +1,415 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.object;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.B;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.BlockVector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, palettized block storage of an object. Every block is a single long holding
+ * its signed 16 bit y, z and x coordinates and a 16 bit palette index, sorted by y, z then x.
+ * Tile data is kept sparse as a second sorted array of packed positions.
+ */
+public class PackedObjectBlocks {
+    private static final int MAX_PALETTE = 0xFFFF;
+    private static final BlockData[] NO_PALETTE = new BlockData[0];
+    private static final long[] NO_KEYS = new long[0];
+    private static final TileData[] NO_TILES = new TileData[0];
+    public static final PackedObjectBlocks EMPTY = new PackedObjectBlocks(NO_PALETTE, NO_KEYS, NO_KEYS, NO_TILES);
+
+    private final BlockData[] palette;
+    private final long[] blocks;
+    private final long[] tileKeys;
+    private final TileData[] tiles;
+    private int hash;
+
+    private PackedObjectBlocks(BlockData[] palette, long[] blocks, long[] tileKeys, TileData[] tiles) {
+        this.palette = palette;
+        this.blocks = blocks;
+        this.tileKeys = tileKeys;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Pack a position. The y coordinate keeps its sign in the high bits so packed
+     * positions sort by y, z then x as plain longs.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (short) y << 48) | ((long) ((z + 32768) & 0xFFFF) << 32) | ((long) ((x + 32768) & 0xFFFF) << 16);
+    }
+
+    /**
+     * Pack the blocks and tiles of an object
+     *
+     * @param blocks the blocks
+     * @param states the tile states or null
+     * @return the packed blocks
+     */
+    public static PackedObjectBlocks of(Map<BlockVector, BlockData> blocks, Map<BlockVector, TileData> states) {
+        KMap<BlockData, Integer> ids = new KMap<>();
+        KList<BlockData> palette = new KList<>();
+        long[] packed = new long[blocks.size()];
+        int n = 0;
+
+        for (Map.Entry<BlockVector, BlockData> e : blocks.entrySet()) {
+            if (n >= packed.length) {
+                break;
+            }
+
+            BlockData data = e.getValue() == null ? B.getAir() : e.getValue();
+            int id = ids.computeIfAbsent(data, (k) -> {
+                palette.add(k);
+                return palette.size() - 1;
+            });
+
+            if (id > MAX_PALETTE) {
+                throw new IllegalStateException("Too many block states in one object (" + palette.size() + ")");
+            }
+
+            BlockVector v = e.getKey();
+            packed[n++] = pack(v.getBlockX(), v.getBlockY(), v.getBlockZ()) | id;
+        }
+
+        if (n < packed.length) {
+            packed = Arrays.copyOf(packed, n);
+        }
+
+        return of(palette.toArray(new BlockData[0]), packed, states);
+    }
+
+    /**
+     * Create packed blocks from a palette and packed block entries with tile states from a map
+     *
+     * @param palette the palette
+     * @param blocks  the packed blocks, sorted in place if needed
+     * @param states  the tile states or null
+     * @return the packed blocks
+     */
+    public static PackedObjectBlocks of(BlockData[] palette, long[] blocks, Map<BlockVector, TileData> states) {
+        long[] tileKeys = NO_KEYS;
+        TileData[] tiles = NO_TILES;
+
+        if (states != null && !states.isEmpty()) {
+            tileKeys = new long[states.size()];
+            KMap<Long, TileData> byKey = new KMap<>();
+            int t = 0;
+
+            for (Map.Entry<BlockVector, TileData> e : states.entrySet()) {
+                if (t >= tileKeys.length) {
+                    break;
+                }
+
+                BlockVector v = e.getKey();
+                long key = pack(v.getBlockX(), v.getBlockY(), v.getBlockZ());
+                tileKeys[t++] = key;
+                byKey.put(key, e.getValue());
+            }
+
+            tileKeys = Arrays.copyOf(tileKeys, t);
+            Arrays.sort(tileKeys);
+            tiles = new TileData[tileKeys.length];
+
+            for (int i = 0; i < tileKeys.length; i++) {
+                tiles[i] = byKey.get(tileKeys[i]);
+            }
+        }
+
+        return of(palette, blocks, tileKeys, tiles);
+    }
+
+    /**
+     * Create packed blocks from raw arrays, sorting and removing duplicate positions if needed.
+     * Tile keys must already be sorted.
+     */
+    static PackedObjectBlocks of(BlockData[] palette, long[] blocks, long[] tileKeys, TileData[] tiles) {
+        if (!isSorted(blocks)) {
+            Arrays.sort(blocks);
+            int n = 0;
+
+            for (int i = 0; i < blocks.length; i++) {
+                if (n > 0 && (blocks[n - 1] >> 16) == (blocks[i] >> 16)) {
+                    blocks[n - 1] = blocks[i];
+                    continue;
+                }
+
+                blocks[n++] = blocks[i];
+            }
+
+            if (n < blocks.length) {
+                blocks = Arrays.copyOf(blocks, n);
+            }
+        }
+
+        return new PackedObjectBlocks(palette, blocks, tileKeys, tiles);
+    }
+
+    private static boolean isSorted(long[] blocks) {
+        for (int i = 1; i < blocks.length; i++) {
+            if ((blocks[i - 1] >> 16) >= (blocks[i] >> 16)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Read the body of an IOB v3 object. Positions are read in one bulk read.
+     *
+     * @param din the input
+     * @return the packed blocks
+     * @throws IOException if the data could not be read
+     */
+    public static PackedObjectBlocks read(DataInputStream din) throws IOException {
+        int s = din.readInt();
+        BlockData[] palette = new BlockData[s];
+
+        for (int i = 0; i < s; i++) {
+            palette[i] = B.get(din.readUTF());
+        }
+
+        long[] blocks = readLongs(din, din.readInt());
+
+        for (long i : blocks) {
+            if ((i & 0xFFFF) >= palette.length) {
+                throw new IOException("Invalid palette index " + (i & 0xFFFF) + " of " + palette.length);
+            }
+        }
+
+        long[] tileKeys = readLongs(din, din.readInt());
+        TileData[] tiles = new TileData[tileKeys.length];
+
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = TileData.read(din);
+        }
+
+        if (!isSorted(tileKeys)) {
+            throw new IOException("Unsorted tile positions");
+        }
+
+        return of(palette, blocks, tileKeys, tiles);
+    }
+
+    private static long[] readLongs(DataInputStream din, int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Invalid size " + count);
+        }
+
+        if (count == 0) {
+            return NO_KEYS;
+        }
+
+        byte[] raw = new byte[Math.multiplyExact(count, 8)];
+        din.readFully(raw);
+        long[] l = new long[count];
+        ByteBuffer.wrap(raw).asLongBuffer().get(l);
+        return l;
+    }
+
+    /**
+     * Write the body of an IOB v3 object
+     *
+     * @param dos the output
+     * @throws IOException if the data could not be written
+     */
+    public void write(DataOutputStream dos) throws IOException {
+        dos.writeInt(palette.length);
+
+        for (BlockData i : palette) {
+            dos.writeUTF(i.getAsString());
+        }
+
+        writeLongs(dos, blocks);
+        writeLongs(dos, tileKeys);
+
+        for (TileData i : tiles) {
+            i.toBinary(dos);
+        }
+    }
+
+    private static void writeLongs(DataOutputStream dos, long[] l) throws IOException {
+        dos.writeInt(l.length);
+        ByteBuffer buffer = ByteBuffer.allocate(l.length * 8);
+        buffer.asLongBuffer().put(l);
+        dos.write(buffer.array());
+    }
+
+    /**
+     * Unpack into mutable maps
+     *
+     * @param blocks the map to fill with blocks
+     * @param states the map to fill with tile states
+     */
+    public void inflate(KMap<BlockVector, BlockData> blocks, KMap<BlockVector, TileData> states) {
+        for (int i = 0; i < this.blocks.length; i++) {
+            blocks.put(getPosition(i), getData(i));
+        }
+
+        for (int i = 0; i < tileKeys.length; i++) {
+            long k = tileKeys[i];
+            states.put(new BlockVector(unpackX(k), unpackY(k), unpackZ(k)), tiles[i]);
+        }
+    }
+
+    public int size() {
+        return blocks.length;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    public BlockData getPalette(int id) {
+        return palette[id];
+    }
+
+    public int getPaletteId(int i) {
+        return (int) (blocks[i] & 0xFFFF);
+    }
+
+    public BlockData getData(int i) {
+        return palette[getPaletteId(i)];
+    }
+
+    public int getX(int i) {
+        return unpackX(blocks[i]);
+    }
+
+    public int getY(int i) {
+        return unpackY(blocks[i]);
+    }
+
+    public int getZ(int i) {
+        return unpackZ(blocks[i]);
+    }
+
+    public BlockVector getPosition(int i) {
+        long k = blocks[i];
+        return new BlockVector(unpackX(k), unpackY(k), unpackZ(k));
+    }
+
+    public TileData getTile(int i) {
+        return getTile(getX(i), getY(i), getZ(i));
+    }
+
+    public TileData getTile(int x, int y, int z) {
+        if (tileKeys.length == 0) {
+            return null;
+        }
+
+        int i = Arrays.binarySearch(tileKeys, pack(x, y, z));
+        return i < 0 ? null : tiles[i];
+    }
+
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Find a block by position
+     *
+     * @return the index of the block or -1
+     */
+    public int indexOf(int x, int y, int z) {
+        long key = pack(x, y, z) >> 16;
+        int lo = 0;
+        int hi = blocks.length - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long v = blocks[mid] >> 16;
+
+            if (v < key) {
+                lo = mid + 1;
+            } else if (v > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    public BlockData get(int x, int y, int z) {
+        int i = indexOf(x, y, z);
+        return i < 0 ? null : getData(i);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return indexOf(x, y, z) >= 0;
+    }
+
+    /**
+     * @return the approximate heap size of this storage in bytes
+     */
+    public long getSize() {
+        return 64 + (blocks.length * 8L) + (tileKeys.length * 8L) + (palette.length * 64L) + (tiles.length * 64L);
+    }
+
+    static int unpackX(long k) {
+        return (int) ((k >>> 16) & 0xFFFF) - 32768;
+    }
+
+    static int unpackY(long k) {
+        return (int) (k >> 48);
+    }
+
+    static int unpackZ(long k) {
+        return (int) ((k >>> 32) & 0xFFFF) - 32768;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof PackedObjectBlocks p)) {
+            return false;
+        }
+
+        return Arrays.equals(blocks, p.blocks) && Arrays.equals(palette, p.palette)
+                && Arrays.equals(tileKeys, p.tileKeys) && Arrays.equals(tiles, p.tiles);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+
+        if (h == 0) {
+            h = Arrays.hashCode(blocks);
+            h = 31 * h + Arrays.hashCode(palette);
+            h = 31 * h + Arrays.hashCode(tileKeys);
+            hash = h;
+        }
+
+        return h;
+    }
+}
@@ -381,7 +381,7 @@ public class BukkitChunkGenerator extends ChunkGenerator implements PlatformChun
 
     @Override
     public int getBaseHeight(@NotNull WorldInfo worldInfo, @NotNull Random random, int x, int z, @NotNull HeightMap heightMap) {
-        return 4;
+        return getEngine(worldInfo).getBaseHeight(x, z, heightMap != HeightMap.OCEAN_FLOOR && heightMap != HeightMap.OCEAN_FLOOR_WG);
     }
 
     private void computeStudioGenerator() {
@@ -0,0 +1,99 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.cache;
+
+import com.volmit.iris.util.function.NoiseProvider;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class DoubleWorldCache2D extends StripedCache2D {
+    private final double[][] values;
+    private final NoiseProvider resolver;
+
+    public DoubleWorldCache2D(NoiseProvider resolver, int size) {
+        super(size);
+        this.resolver = resolver;
+        this.values = new double[getSlots()][];
+    }
+
+    public double get(int x, int z) {
+        long key = key(x, z);
+        int slot = slot(key);
+        int index = index(x, z);
+        ReentrantLock lock = lock(slot);
+
+        lock.lock();
+        try {
+            if (contains(slot, key, index)) {
+                return values[slot][index];
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        double v = resolver.noise(x, z);
+
+        lock.lock();
+        try {
+            claim(slot, key, index);
+            page(slot)[index] = v;
+        } finally {
+            lock.unlock();
+        }
+
+        return v;
+    }
+
+    /**
+     * Fill a w by h plane starting at x, z into out, see {@link #fillPlane(int, int, int, int, Object)}
+     */
+    public void fill(int x, int z, int w, int h, double[] out) {
+        fillPlane(x, z, w, h, out);
+    }
+
+    @Override
+    protected void read(int slot, int index, Object out, int o) {
+        ((double[]) out)[o] = values[slot][index];
+    }
+
+    @Override
+    protected void resolve(int x, int z, Object out, int o) {
+        ((double[]) out)[o] = resolver.noise(x, z);
+    }
+
+    @Override
+    protected void write(int slot, int index, Object out, int o) {
+        page(slot)[index] = ((double[]) out)[o];
+    }
+
+    /**
+     * Get the page of a slot, allocating it on first use. Must hold the slot lock.
+     */
+    private double[] page(int slot) {
+        double[] p = values[slot];
+
+        if (p == null) {
+            p = new double[256];
+            values[slot] = p;
+        }
+
+        return p;
+    }
+}
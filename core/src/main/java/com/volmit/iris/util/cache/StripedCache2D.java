@@ -0,0 +1,256 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.cache;
+
+import com.volmit.iris.engine.data.cache.Cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared bookkeeping for the world level 2D caches. The cache is a direct mapped table
+ * of chunk sized tiles (16x16 values each). A tile is claimed by the chunk that hashes
+ * into its slot, evicting whatever chunk held it before. Slots are guarded by a fixed
+ * table of striped locks, values are stored by the subclasses in primitive or reference
+ * pages of 256 values, one per slot, which are only allocated once the slot is claimed.
+ */
+public abstract class StripedCache2D {
+    private static final int MAX_STRIPES = 256;
+    private static final int MAX_SLOTS = 1 << 16;
+    private final int bits;
+    private final int slots;
+    private final long[] keys;
+    private final long[] filled;
+    private final ReentrantLock[] locks;
+    private final int[] sizes;
+    private final int stripeMask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Create a cache
+     *
+     * @param chunks the amount of chunk tiles to hold (rounded up to a power of two, at most 65536)
+     */
+    protected StripedCache2D(int chunks) {
+        int s = 1;
+        while (s < Math.min(chunks, MAX_SLOTS)) {
+            s <<= 1;
+        }
+
+        int stripes = Math.min(s, MAX_STRIPES);
+        this.slots = s;
+        this.bits = Integer.numberOfTrailingZeros(s);
+        this.keys = new long[s];
+        this.filled = new long[s << 2];
+        this.locks = new ReentrantLock[stripes];
+        this.sizes = new int[stripes];
+        this.stripeMask = stripes - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    protected static long key(int x, int z) {
+        return Cache.key(x >> 4, z >> 4);
+    }
+
+    protected static int index(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+
+    protected final int getSlots() {
+        return slots;
+    }
+
+    protected final int slot(long key) {
+        return bits == 0 ? 0 : (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+
+    protected final ReentrantLock lock(int slot) {
+        return locks[slot & stripeMask];
+    }
+
+    /**
+     * Check if the slot holds a value for the given chunk & index. Must hold the slot lock.
+     */
+    protected final boolean contains(int slot, long key, int index) {
+        if (keys[slot] == key && (filled[(slot << 2) | (index >> 6)] & (1L << index)) != 0) {
+            hits.increment();
+            return true;
+        }
+
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Claim the given index of the slot for the given chunk, evicting the previous chunk if needed.
+     * Must hold the slot lock.
+     */
+    protected final void claim(int slot, long key, int index) {
+        int f = slot << 2;
+
+        if (keys[slot] != key) {
+            int dropped = Long.bitCount(filled[f]) + Long.bitCount(filled[f | 1]) + Long.bitCount(filled[f | 2]) + Long.bitCount(filled[f | 3]);
+
+            if (dropped > 0) {
+                filled[f] = 0;
+                filled[f | 1] = 0;
+                filled[f | 2] = 0;
+                filled[f | 3] = 0;
+                sizes[slot & stripeMask] -= dropped;
+                evictions.increment();
+                onEvict(slot);
+            }
+
+            keys[slot] = key;
+        }
+
+        long bit = 1L << index;
+        int w = f | (index >> 6);
+
+        if ((filled[w] & bit) == 0) {
+            filled[w] |= bit;
+            sizes[slot & stripeMask]++;
+        }
+    }
+
+    /**
+     * Fill a w by h plane starting at x, z into out (row major, x fastest). The plane is
+     * visited one chunk tile at a time: the tile lock is taken once to copy everything
+     * already cached, the rest is resolved without holding it and then stored under a
+     * second lock.
+     *
+     * @param out the output array handed to {@link #read}, {@link #resolve} and {@link #write}
+     */
+    protected final void fillPlane(int x, int z, int w, int h, Object out) {
+        int[] pendingIndex = new int[256];
+        int[] pendingOut = new int[256];
+        int cx, cz, xx, zz;
+
+        for (cz = z >> 4; cz <= (z + h - 1) >> 4; cz++) {
+            int z0 = Math.max(z, cz << 4);
+            int z1 = Math.min(z + h, (cz << 4) + 16);
+
+            for (cx = x >> 4; cx <= (x + w - 1) >> 4; cx++) {
+                int x0 = Math.max(x, cx << 4);
+                int x1 = Math.min(x + w, (cx << 4) + 16);
+                long key = Cache.key(cx, cz);
+                int slot = slot(key);
+                ReentrantLock lock = lock(slot);
+                int pending = 0;
+
+                lock.lock();
+                try {
+                    for (zz = z0; zz < z1; zz++) {
+                        for (xx = x0; xx < x1; xx++) {
+                            int index = index(xx, zz);
+                            int o = ((zz - z) * w) + (xx - x);
+
+                            if (contains(slot, key, index)) {
+                                read(slot, index, out, o);
+                            } else {
+                                pendingIndex[pending] = index;
+                                pendingOut[pending++] = o;
+                            }
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (pending == 0) {
+                    continue;
+                }
+
+                for (int i = 0; i < pending; i++) {
+                    resolve(x + (pendingOut[i] % w), z + (pendingOut[i] / w), out, pendingOut[i]);
+                }
+
+                lock.lock();
+                try {
+                    for (int i = 0; i < pending; i++) {
+                        claim(slot, key, pendingIndex[i]);
+                        write(slot, pendingIndex[i], out, pendingOut[i]);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy a cached value into the output of {@link #fillPlane}. Must hold the slot lock.
+     */
+    protected abstract void read(int slot, int index, Object out, int o);
+
+    /**
+     * Compute the value at x, z into the output of {@link #fillPlane}.
+     */
+    protected abstract void resolve(int x, int z, Object out, int o);
+
+    /**
+     * Store a resolved value from the output of {@link #fillPlane}. The slot has been claimed
+     * but its page may not be allocated yet. Must hold the slot lock.
+     */
+    protected abstract void write(int slot, int index, Object out, int o);
+
+    /**
+     * Called when a slot is handed to a different chunk. Must hold the slot lock.
+     *
+     * @param slot the slot
+     */
+    protected void onEvict(int slot) {
+
+    }
+
+    public long getSize() {
+        long s = 0;
+
+        for (int i : sizes) {
+            s += i;
+        }
+
+        return s;
+    }
+
+    public long getMaxSize() {
+        return (long) slots << 8;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -1,24 +1,91 @@
 package com.volmit.iris.util.cache;
 
-import com.volmit.iris.engine.data.cache.Cache;
-import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.function.Function2;
 
-public class WorldCache2D<T> {
-    private final KCache<Long, ChunkCache2D<T>> chunks;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class WorldCache2D<T> extends StripedCache2D {
+    private final Object[][] values;
     private final Function2<Integer, Integer, T> resolver;
 
-    public WorldCache2D(Function2<Integer, Integer, T> resolver) {
+    public WorldCache2D(Function2<Integer, Integer, T> resolver, int size) {
+        super(size);
         this.resolver = resolver;
-        chunks = new KCache<>((x) -> new ChunkCache2D<>(), 1024);
+        this.values = new Object[getSlots()][];
     }
 
+    @SuppressWarnings("unchecked")
     public T get(int x, int z) {
-        ChunkCache2D<T> chunk = chunks.get(Cache.key(x >> 4, z >> 4));
-        return chunk.get(x, z, resolver);
+        long key = key(x, z);
+        int slot = slot(key);
+        int index = index(x, z);
+        ReentrantLock lock = lock(slot);
+
+        lock.lock();
+        try {
+            if (contains(slot, key, index)) {
+                return (T) values[slot][index];
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        T t = resolver.apply(x, z);
+
+        lock.lock();
+        try {
+            claim(slot, key, index);
+            page(slot)[index] = t;
+        } finally {
+            lock.unlock();
+        }
+
+        return t;
+    }
+
+    /**
+     * Fill a w by h plane starting at x, z into out, see {@link #fillPlane(int, int, int, int, Object)}
+     */
+    public void fill(int x, int z, int w, int h, T[] out) {
+        fillPlane(x, z, w, h, out);
+    }
+
+    @Override
+    protected void read(int slot, int index, Object out, int o) {
+        ((Object[]) out)[o] = values[slot][index];
     }
 
-    public long getSize() {
-        return chunks.getSize() * 256L;
+    @Override
+    protected void resolve(int x, int z, Object out, int o) {
+        ((Object[]) out)[o] = resolver.apply(x, z);
+    }
+
+    @Override
+    protected void write(int slot, int index, Object out, int o) {
+        page(slot)[index] = ((Object[]) out)[o];
+    }
+
+    /**
+     * Get the page of a slot, allocating it on first use. Must hold the slot lock.
+     */
+    private Object[] page(int slot) {
+        Object[] p = values[slot];
+
+        if (p == null) {
+            p = new Object[256];
+            values[slot] = p;
+        }
+
+        return p;
+    }
+
+    @Override
+    protected void onEvict(int slot) {
+        Object[] p = values[slot];
+
+        if (p != null) {
+            Arrays.fill(p, null);
+        }
     }
 }
@@ -31,7 +31,7 @@ public class ChunkContext {
         this.z = z;
 
         if (cache) {
-            BurstExecutor b = MultiBurst.burst.burst();
+            BurstExecutor b = MultiBurst.burst.burst(6);
             height = new ChunkedDataCache<>(b, c.getHeightStream(), x, z);
             biome = new ChunkedDataCache<>(b, c.getTrueBiomeStream(), x, z);
             cave = new ChunkedDataCache<>(b, c.getCaveBiomeStream(), x, z);
@@ -29,24 +29,31 @@ public class ChunkedDataCache<T> {
         this.uniques = cache ? new KSet<>() : null;
         if (cache) {
             data = new Object[256];
-            int i, j;
-
-            for (i = 0; i < 16; i++) {
-                int finalI = i;
-                for (j = 0; j < 16; j++) {
-                    int finalJ = j;
-                    burst.queue(() -> {
-                        T t = stream.get(x + finalI, z + finalJ);
-                        data[(finalJ * 16) + finalI] = t;
-                        uniques.add(t);
-                    });
-                }
+
+            if (burst == null) {
+                fill();
+            } else {
+                burst.queue(this::fill);
             }
         } else {
             data = new Object[0];
         }
     }
 
+    /**
+     * Evaluates the whole 16x16 plane in one pass, then collects the uniques once
+     */
+    @SuppressWarnings("unchecked")
+    private void fill() {
+        stream.fill2D(x, z, 16, 16, (T[]) data);
+
+        for (Object t : data) {
+            if (t != null) {
+                uniques.add((T) t);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @BlockCoordinates
     public T get(int x, int z) {
@@ -39,11 +39,18 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.bukkit.Material.*;
 
 public class B {
+    private static final KMap<String, FutureTask<Parsed>> parsed = new KMap<>();
+    private static final KMap<String, Integer> stateIds = new KMap<>();
+    private static final KMap<Integer, BlockData> states = new KMap<>();
+    private static final AtomicInteger nextStateId = new AtomicInteger();
     private static final KMap<String, BlockData> custom = new KMap<>();
 
     private static final Material AIR_MATERIAL = Material.AIR;
@@ -279,9 +286,20 @@ public class B {
     }
 
     public static BlockData toDeepSlateOre(BlockData block, BlockData ore) {
+        return toDeepSlateOre(isDeepSlate(block), ore);
+    }
+
+    /**
+     * Get the variant of an ore for its host rock
+     *
+     * @param deepslate if the ore replaces deepslate
+     * @param ore       the ore
+     * @return the deepslate or normal variant of the ore, or the ore itself if it has none
+     */
+    public static BlockData toDeepSlateOre(boolean deepslate, BlockData ore) {
         int key = ore.getMaterial().ordinal();
 
-        if (isDeepSlate(block)) {
+        if (deepslate) {
             if (normal2DeepslateCache.containsKey(key)) {
                 return Material.values()[normal2DeepslateCache.get(key)].createBlockData();
             }
@@ -410,6 +428,16 @@ public class B {
         return mat.getMaterial().isSolid();
     }
 
+    /**
+     * Get the block data of a block string. Block strings are parsed once, every later call
+     * for the same string returns the same interned instance. Clone it before mutating it.
+     * Strings which fail to parse, or external blocks which can't be resolved yet, are
+     * parsed again on the next call.
+     *
+     * @param bdxf the block string
+     * @param warn if unknown blocks should be logged and resolve to air
+     * @return the block data or null
+     */
     public static BlockData getOrNull(String bdxf, boolean warn) {
         try {
             String bd = bdxf.trim();
@@ -418,15 +446,7 @@ public class B {
                 return custom.get(bd);
             }
 
-            if (bd.startsWith("minecraft:cauldron[level=")) {
-                bd = bd.replaceAll("\\Q:cauldron[\\E", ":water_cauldron[");
-            }
-
-            if (bd.equals("minecraft:grass_path")) {
-                return DIRT_PATH.createBlockData();
-            }
-
-            BlockData bdx = parseBlockData(bd, warn);
+            BlockData bdx = parsed(bd, warn);
 
             if (bdx == null && warn) {
                 if (clw.flip()) {
@@ -469,7 +489,110 @@ public class B {
         }
     }
 
-    private static synchronized BlockData createBlockData(String s, boolean warn) {
+    /**
+     * Get the parsed block data of a trimmed block string. The first caller of a string parses
+     * it while callers of the same string wait for it, different strings parse in parallel.
+     * Results which should not be kept are dropped from the table once they are handed out.
+     */
+    private static BlockData parsed(String bd, boolean warn) throws ExecutionException, InterruptedException {
+        FutureTask<Parsed> task = parsed.get(bd);
+
+        if (task == null) {
+            FutureTask<Parsed> created = new FutureTask<>(() -> {
+                Parsed p = parse(bd, warn);
+                return p.keep() ? new Parsed(intern(p.data()), true) : p;
+            });
+            task = parsed.putIfAbsent(bd, created);
+
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+
+        try {
+            Parsed p = task.get();
+
+            if (!p.keep()) {
+                parsed.remove(bd, task);
+            }
+
+            return p.data();
+        } catch (ExecutionException e) {
+            parsed.remove(bd, task);
+            throw e;
+        }
+    }
+
+    private static Parsed parse(String bd, boolean warn) {
+        if (bd.startsWith("minecraft:cauldron[level=")) {
+            bd = bd.replaceAll("\\Q:cauldron[\\E", ":water_cauldron[");
+        }
+
+        if (bd.equals("minecraft:grass_path")) {
+            return new Parsed(DIRT_PATH.createBlockData(), true);
+        }
+
+        return parseBlockData(bd, warn);
+    }
+
+    /**
+     * Get the shared instance of a block state so equal states from different loaders are
+     * the same object
+     *
+     * @param data the block data
+     * @return the interned block data or null if data is null
+     */
+    public static BlockData intern(BlockData data) {
+        if (data == null) {
+            return null;
+        }
+
+        int id = getStateId(data);
+        return states.get(id);
+    }
+
+    /**
+     * Get the compact id of a block state. Ids are handed out in the order states are first
+     * seen and are only stable for the lifetime of the server.
+     *
+     * @param data the block data
+     * @return the state id
+     */
+    public static int getStateId(BlockData data) {
+        String key = stateKey(data);
+        Integer id = stateIds.get(key);
+
+        if (id != null) {
+            return id;
+        }
+
+        return stateIds.computeIfAbsent(key, (k) -> {
+            int i = nextStateId.getAndIncrement();
+            states.put(i, data);
+            return i;
+        });
+    }
+
+    private static String stateKey(BlockData data) {
+        if (data instanceof IrisBlockData b) {
+            return b.getCustom() + "|" + b.getBase().getAsString();
+        }
+
+        return data.getAsString();
+    }
+
+    /**
+     * Get the block state of a state id
+     *
+     * @param id the state id
+     * @return the interned block data or null if the id is unknown
+     */
+    public static BlockData getState(int id) {
+        return states.get(id);
+    }
+
+    private static BlockData createBlockData(String s, boolean warn) {
         try {
             return Bukkit.createBlockData(s);
         } catch (IllegalArgumentException e) {
@@ -484,16 +607,21 @@ public class B {
         return null;
     }
 
-    private static BlockData parseBlockData(String ix, boolean warn) {
+    private static Parsed parseBlockData(String ix, boolean warn) {
+        boolean external = !ix.startsWith("minecraft:") && ix.contains(":");
+        boolean resolved = !external;
+
         try {
             BlockData bx = null;
 
-            if (!ix.startsWith("minecraft:") && ix.contains(":")) {
+            if (external) {
                 Identifier key = Identifier.fromString(ix);
                 Optional<BlockData> bd = Iris.service(ExternalDataSVC.class).getBlockData(key);
                 Iris.info("Loading block data " + key);
-                if (bd.isPresent())
+                if (bd.isPresent()) {
                     bx = bd.get();
+                    resolved = true;
+                }
             }
 
             if (bx == null) {
@@ -521,7 +649,7 @@ public class B {
             }
 
             if (bx == null) {
-                return null;
+                return Parsed.FAILED;
             }
 
             if (bx instanceof Leaves && IrisSettings.get().getGenerator().isPreventLeafDecay()) {
@@ -530,7 +658,7 @@ public class B {
                 ((Leaves) bx).setPersistent(false);
             }
 
-            return bx;
+            return new Parsed(bx, resolved);
         } catch (Throwable e) {
             if (clw.flip()) {
                 Iris.warn("Unknown Block Data: " + ix);
@@ -580,12 +708,12 @@ public class B {
             Iris.debug("Converting " + ix + " to " + newBlock);
 
             try {
-                return createBlockData(newBlock, warn);
+                return new Parsed(createBlockData(newBlock, warn), false);
             } catch (Throwable e1) {
                 Iris.reportError(e1);
             }
 
-            return null;
+            return Parsed.FAILED;
         }
     }
 
@@ -701,4 +829,16 @@ public class B {
             default -> false;
         };
     }
+
+    /**
+     * A parse result and whether it may stay in the parse table. Failed parses, converted
+     * fallbacks and external blocks which couldn't be resolved are parsed again next time.
+     */
+    private record Parsed(BlockData data, boolean keep) {
+        private static final Parsed FAILED = new Parsed(null, false);
+
+        Parsed {
+            keep = keep && data != null;
+        }
+    }
 }
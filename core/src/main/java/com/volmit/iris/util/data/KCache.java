@@ -21,6 +21,7 @@ package com.volmit.iris.util.data;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.volmit.iris.engine.framework.MeteredCache;
 import com.volmit.iris.util.math.RollingSequence;
 
@@ -28,6 +29,7 @@ public class KCache<K, V> implements MeteredCache {
     private final long max;
     private final LoadingCache<K, V> cache;
     private final boolean fastDump;
+    private final Weigher<K, V> weigher;
     private final RollingSequence msu = new RollingSequence(100);
     private CacheLoader<K, V> loader;
 
@@ -39,12 +41,36 @@ public class KCache<K, V> implements MeteredCache {
         this.max = max;
         this.fastDump = fastDump;
         this.loader = loader;
+        this.weigher = null;
+        this.cache = create(loader);
+    }
+
+    /**
+     * Create a cache bounded by the summed weight of its values instead of their count
+     *
+     * @param loader  the loader
+     * @param max     the maximum total weight, usually in bytes
+     * @param weigher the weigher
+     */
+    public KCache(CacheLoader<K, V> loader, long max, Weigher<K, V> weigher) {
+        this.max = max;
+        this.fastDump = false;
+        this.loader = loader;
+        this.weigher = weigher;
         this.cache = create(loader);
     }
 
     private LoadingCache<K, V> create(CacheLoader<K, V> loader) {
-        return Caffeine
-                .newBuilder()
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+
+        if (weigher != null) {
+            return builder
+                    .maximumWeight(max)
+                    .weigher(weigher)
+                    .build((k) -> loader == null ? null : loader.load(k));
+        }
+
+        return builder
                 .maximumSize(max)
                 .initialCapacity((int) (max))
                 .build((k) -> loader == null ? null : loader.load(k));
@@ -67,11 +93,69 @@ public class KCache<K, V> implements MeteredCache {
         return cache.get(k);
     }
 
+    /**
+     * Weigh a cached value again after it changed size. Nothing happens if the key holds a
+     * different instance or the cache is not weighted.
+     *
+     * @param k the key
+     * @param v the value which changed
+     */
+    public void reweigh(K k, V v) {
+        if (weigher != null && cache.asMap().get(k) == v) {
+            cache.asMap().replace(k, v, v);
+        }
+    }
+
     @Override
     public long getSize() {
         return cache.estimatedSize();
     }
 
+    /**
+     * @return true if this cache is bounded by weight
+     */
+    @Override
+    public boolean isWeighted() {
+        return weigher != null;
+    }
+
+    /**
+     * @return the summed weight of all values, or the entry count if this cache is not weighted
+     */
+    @Override
+    public long getWeightedSize() {
+        if (weigher == null) {
+            return getSize();
+        }
+
+        return cache.policy().eviction().map((e) -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    @Override
+    public double getUsage() {
+        return (double) getWeightedSize() / (double) max;
+    }
+
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return cache.stats().loadCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
     @Override
     public KCache<?, ?> getRawCache() {
         return this;
@@ -18,7 +18,32 @@
 
 package com.volmit.iris.util.function;
 
-@FunctionalInterface
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Combines the noise of a child into its parent. The weight is added to the divisor the
+ * combined noise is normalized by.
+ */
 public interface NoiseInjector {
-    double[] combine(double src, double value);
+    static NoiseInjector of(double weight, DoubleBinaryOperator combiner) {
+        return new NoiseInjector() {
+            @Override
+            public double inject(double src, double value) {
+                return combiner.applyAsDouble(src, value);
+            }
+
+            @Override
+            public double getWeight() {
+                return weight;
+            }
+        };
+    }
+
+    double inject(double src, double value);
+
+    double getWeight();
+
+    default double[] combine(double src, double value) {
+        return new double[]{inject(src, value), getWeight()};
+    }
 }
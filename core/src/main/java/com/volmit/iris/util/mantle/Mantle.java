@@ -22,6 +22,7 @@ import com.google.common.util.concurrent.AtomicDouble;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.service.IrisEngineSVC;
+import com.volmit.iris.core.service.PreservationSVC;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
@@ -29,13 +30,13 @@ import com.volmit.iris.engine.mantle.EngineMantle;
 import com.volmit.iris.engine.mantle.MantleWriter;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.documentation.RegionCoordinates;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.format.Form;
 import com.volmit.iris.util.function.Consumer4;
-import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.parallel.BurstExecutor;
@@ -47,11 +48,12 @@ import org.bukkit.Chunk;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -64,14 +66,16 @@ public class Mantle {
     private final File dataFolder;
     @Getter
     private final int worldHeight;
-    private final Map<Long, Long> lastUse;
     @Getter
-    private final Map<Long, TectonicPlate> loadedRegions;
+    private final TectonicPlateCache loadedRegions;
+    @Getter
     private final HyperLock hyperLock;
     private final AtomicBoolean closed;
     private final MultiBurst ioBurst;
     private final AtomicBoolean ioTrim;
     private final AtomicBoolean ioTectonicUnload;
+    private final KSet<Long> prefetching;
+    private final Semaphore prefetchPermits;
 
     /**
      * Create a new mantle
@@ -88,9 +92,12 @@ public class Mantle {
         this.ioTrim = new AtomicBoolean(false);
         this.ioTectonicUnload = new AtomicBoolean(false);
         dataFolder.mkdirs();
-        loadedRegions = new KMap<>();
-        lastUse = new KMap<>();
+        loadedRegions = new TectonicPlateCache(IrisSettings.get().getPerformance().getMantleCacheBudgetBytes(),
+                IrisSettings.get().getPerformance().getMantleEvictionPolicy(), closed::get);
         ioBurst = MultiBurst.burst;
+        prefetching = new KSet<>();
+        prefetchPermits = new Semaphore(Math.max(IrisSettings.get().getPerformance().getMantlePrefetchConcurrency(), 0));
+        Iris.service(PreservationSVC.class).registerCache(loadedRegions);
         Iris.debug("Opened The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
     }
 
@@ -359,11 +366,12 @@ public class Mantle {
         }
 
         closed.set(true);
+        PlateCommit commit = new PlateCommit();
         BurstExecutor b = ioBurst.burst(loadedRegions.size());
         for (Long i : loadedRegions.keySet()) {
             b.queue(() -> {
                 try {
-                    loadedRegions.get(i).write(fileForRegion(dataFolder, i));
+                    loadedRegions.peek(i).write(fileForRegion(dataFolder, i), commit);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
@@ -372,6 +380,7 @@ public class Mantle {
 
         try {
             b.complete();
+            commit.complete();
         } catch (Throwable e) {
             Iris.reportError(e);
         }
@@ -381,63 +390,50 @@ public class Mantle {
     }
 
     /**
-     * Estimates the memory usage of the lastUse map.
+     * Estimates the memory usage of the plate access bookkeeping.
      *
      * @return Estimated memory usage in bytes.
      */
 
     public long LastUseMapMemoryUsage() {
-        long numberOfEntries = lastUse.size();
-        long bytesPerEntry = Long.BYTES * 2;
+        long numberOfEntries = loadedRegions.size();
+        long bytesPerEntry = Long.BYTES * 4;
         return numberOfEntries * bytesPerEntry;
     }
 
     @Getter
     private final AtomicDouble adjustedIdleDuration = new AtomicDouble(0);
-    @Getter
-    private final AtomicInteger forceAggressiveThreshold = new AtomicInteger(30);
-    @Getter
-    private final AtomicLong oldestTectonicPlate = new AtomicLong(0);
     private final ReentrantLock unloadLock = new ReentrantLock();
     @Getter
     private final KList<Long> toUnload = new KList<>();
 
     /**
-     * Save & unload regions that have not been used for more than the
-     * specified amount of milliseconds
+     * Queue regions for saving & unloading. Regions that have not been used for more than
+     * the specified amount of milliseconds are always queued, after that regions are
+     * queued by the configured eviction policy until the loaded plates fit into the budget
      *
      * @param baseIdleDuration the duration
+     * @param budget           the memory budget for loaded plates in bytes
      */
-    public synchronized void trim(long baseIdleDuration, int tectonicLimit) {
+    public synchronized void trim(long baseIdleDuration, long budget) {
         if (closed.get()) {
             throw new RuntimeException("The Mantle is closed");
         }
 
         adjustedIdleDuration.set(baseIdleDuration);
-
-        if (loadedRegions != null) {
-            if (loadedRegions.size() > tectonicLimit) {
-                // todo update this correctly and maybe do something when its above a 100%
-                adjustedIdleDuration.set(Math.max(adjustedIdleDuration.get() - (1000 * (((loadedRegions.size() - tectonicLimit) / (double) tectonicLimit) * 100) * 0.4), 4000));
-            }
-        }
+        loadedRegions.setBudget(budget);
 
         ioTrim.set(true);
         unloadLock.lock();
         try {
-            if (lastUse != null && IrisEngineSVC.instance != null) {
-                if (!lastUse.isEmpty()) {
-                    Iris.debug("Trimming Tectonic Plates older than " + Form.duration(adjustedIdleDuration.get(), 0));
-                    for (long i : new ArrayList<>(lastUse.keySet())) {
-                        double finalAdjustedIdleDuration = adjustedIdleDuration.get();
-                        hyperLock.withLong(i, () -> {
-                            Long lastUseTime = lastUse.get(i);
-                            if (lastUseTime != null && M.ms() - lastUseTime >= finalAdjustedIdleDuration) {
-                                toUnload.add(i);
-                                Iris.debug("Tectonic Region added to unload");
-                                IrisEngineSVC.instance.trimActiveAlive.reset();
-                            }
-                        });
+            if (IrisEngineSVC.instance != null && loadedRegions.size() > 0) {
+                long weight = loadedRegions.reweigh();
+                Iris.debug("Trimming Tectonic Plates older than " + Form.duration(baseIdleDuration, 0) + " or over budget (" + Form.memSize(weight, 1) + " / " + Form.memSize(budget, 1) + ")");
+                for (Long i : loadedRegions.victims(baseIdleDuration)) {
+                    if (!toUnload.contains(i)) {
+                        toUnload.add(i);
+                        Iris.debug("Tectonic Region added to unload");
+                        IrisEngineSVC.instance.trimActiveAlive.reset();
                     }
                 }
             }
@@ -450,12 +446,22 @@ public class Mantle {
         }
     }
 
+    /**
+     * Save and unload the queued regions. All plates are written first and committed to
+     * disk together, plates are only evicted once their commit succeeded and they were not
+     * touched again in the meantime.
+     *
+     * @param tectonicLimit the amount of plates above which the writes run multicore
+     * @return the amount of unloaded plates
+     */
     public synchronized int unloadTectonicPlate(int tectonicLimit) {
         AtomicInteger i = new AtomicInteger();
         unloadLock.lock();
         BurstExecutor burst = null;
         if (IrisEngineSVC.instance != null) {
             try {
+                PlateCommit commit = new PlateCommit();
+                KMap<Long, TectonicPlate> written = new KMap<>();
                 KList<Long> copy = toUnload.copy();
                 if (!disableClear) toUnload.clear();
                 burst = MultiBurst.burst.burst(copy.size());
@@ -469,22 +475,17 @@ public class Mantle {
 
                     burst.queue(() ->
                             hyperLock.withLong(id, () -> {
-                                TectonicPlate m = loadedRegions.get(id);
+                                TectonicPlate m = loadedRegions.peek(id);
                                 if (m != null) {
                                     if (m.inUse()) {
                                         Iris.debug("Tectonic Plate was added to unload while in use " + C.DARK_GREEN + m.getX() + " " + m.getZ());
                                         if (disableClear) toUnload.remove(id);
-                                        lastUse.put(id, M.ms());
+                                        loadedRegions.touch(id);
                                         return;
                                     }
                                     try {
-                                        m.write(fileForRegion(dataFolder, id));
-                                        loadedRegions.remove(id);
-                                        lastUse.remove(id);
-                                        if (disableClear) toUnload.remove(id);
-                                        i.incrementAndGet();
-                                        Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
-                                        IrisEngineSVC.instance.unloadActiveAlive.reset();
+                                        m.write(fileForRegion(dataFolder, id), commit);
+                                        written.put(id, m);
                                     } catch (IOException e) {
                                         Iris.reportError(e);
                                     }
@@ -492,6 +493,29 @@ public class Mantle {
                             }));
                 }
                 burst.complete();
+
+                try {
+                    commit.complete();
+                } catch (IOException e) {
+                    Iris.error("Failed to commit " + commit.size() + " Tectonic Plate files, keeping the failed plates loaded");
+                    Iris.reportError(e);
+                }
+
+                for (Long id : written.k()) {
+                    TectonicPlate m = written.get(id);
+                    hyperLock.withLong(id, () -> {
+                        if (loadedRegions.peek(id) != m || m.inUse() || m.isDirty()) {
+                            loadedRegions.touch(id);
+                            return;
+                        }
+
+                        loadedRegions.evict(id);
+                        if (disableClear) toUnload.remove(id);
+                        i.incrementAndGet();
+                        Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+                        IrisEngineSVC.instance.unloadActiveAlive.reset();
+                    });
+                }
             } catch (Throwable e) {
                 e.printStackTrace();
                 if (burst != null)
@@ -533,7 +557,7 @@ public class Mantle {
         }
 
         try {
-            return getSafe(x, z).get();
+            return load(x, z).get();
         } catch (InterruptedException e) {
             Iris.warn("Failed to get Tectonic Plate " + x + " " + z + " Due to a thread intterruption (hotload?)");
             Iris.reportError(e);
@@ -556,17 +580,46 @@ public class Mantle {
      */
     @RegionCoordinates
     private Future<TectonicPlate> getSafe(int x, int z) {
-        Long k = key(x, z);
-        TectonicPlate p = loadedRegions.get(k);
+        TectonicPlate p = loadedRegions.get(key(x, z));
 
         if (p != null) {
-            lastUse.put(k, M.ms());
             return CompletableFuture.completedFuture(p);
         }
 
-        return ioBurst.completeValue(() -> hyperLock.withResult(x, z, () -> {
-            lastUse.put(k, M.ms());
-            TectonicPlate region = loadedRegions.get(k);
+        return load(x, z);
+    }
+
+    /**
+     * Reads or creates the Tectonic Plate at the given coordinates on the io burst
+     *
+     * @param x the region x
+     * @param z the region z
+     * @return the future of a tectonic plate.
+     */
+    @RegionCoordinates
+    private Future<TectonicPlate> load(int x, int z) {
+        return ioBurst.completeValue(() -> load(x, z, false));
+    }
+
+    /**
+     * Reads or creates the Tectonic Plate at the given coordinates on the calling thread
+     *
+     * @param x        the region x
+     * @param z        the region z
+     * @param prefetch if this load is a prefetch ahead of use
+     * @return the tectonic plate
+     */
+    @RegionCoordinates
+    private TectonicPlate load(int x, int z, boolean prefetch) {
+        Long k = key(x, z);
+        TectonicPlate loaded = hyperLock.withReadResult(x, z, () -> loadedRegions.peek(k));
+
+        if (loaded != null) {
+            return loaded;
+        }
+
+        return hyperLock.withResult(x, z, () -> {
+            TectonicPlate region = loadedRegions.peek(k);
 
             if (region != null) {
                 return region;
@@ -582,17 +635,19 @@ public class Mantle {
                         Iris.warn("Loaded Tectonic Plate " + x + "," + z + " but read it as " + region.getX() + "," + region.getZ() + "... Assuming " + x + "," + z);
                     }
 
-                    loadedRegions.put(k, region);
+                    loadedRegions.put(k, region, prefetch);
                     Iris.debug("Loaded Tectonic Plate " + C.DARK_GREEN + x + " " + z + C.DARK_AQUA + " " + file.getName());
                 } catch (Throwable e) {
-                    Iris.error("Failed to read Tectonic Plate " + file.getAbsolutePath() + " creating a new chunk instead.");
+                    File corrupt = new File(file.getParentFile(), file.getName() + ".corrupt");
+                    Iris.error("Failed to read Tectonic Plate " + file.getAbsolutePath() + " creating a new chunk instead. The damaged plate was kept as " + corrupt.getName());
                     Iris.reportError(e);
                     if (!(e instanceof EOFException)) {
                         e.printStackTrace();
                     }
                     Iris.panic();
+                    quarantine(file, corrupt);
                     region = new TectonicPlate(worldHeight, x, z);
-                    loadedRegions.put(k, region);
+                    loadedRegions.put(k, region, prefetch);
                     Iris.debug("Created new Tectonic Plate (Due to Load Failure) " + C.DARK_GREEN + x + " " + z);
                 }
 
@@ -600,10 +655,103 @@ public class Mantle {
             }
 
             region = new TectonicPlate(worldHeight, x, z);
-            loadedRegions.put(k, region);
+            loadedRegions.put(k, region, prefetch);
             Iris.debug("Created new Tectonic Plate " + C.DARK_GREEN + x + " " + z);
             return region;
-        }));
+        });
+    }
+
+    /**
+     * Move a plate that could not be read out of the way so saving the replacement plate
+     * does not overwrite it
+     *
+     * @param file    the plate file
+     * @param corrupt the file to move it to
+     */
+    private void quarantine(File file, File corrupt) {
+        try {
+            Files.move(file.toPath(), corrupt.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            File log = TectonicPlate.logFile(file);
+
+            if (log.exists()) {
+                Files.move(log.toPath(), TectonicPlate.logFile(corrupt).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Iris.reportError(e);
+        }
+    }
+
+    /**
+     * Load the Tectonic Plate at the given coordinates in the background if it exists on
+     * disk and is not loaded yet. Prefetches run on the io burst with bounded concurrency,
+     * requests over that bound are dropped rather than queued so callers never block.
+     *
+     * @param x the region x
+     * @param z the region z
+     */
+    @RegionCoordinates
+    public void prefetch(int x, int z) {
+        Long k = key(x, z);
+
+        if (closed.get() || loadedRegions.containsKey(k) || prefetching.contains(k) || !prefetchPermits.tryAcquire()) {
+            return;
+        }
+
+        if (!prefetching.add(k)) {
+            prefetchPermits.release();
+            return;
+        }
+
+        ioBurst.lazy(() -> {
+            try {
+                if (!closed.get() && !loadedRegions.containsKey(k) && fileForRegion(dataFolder, k).exists()) {
+                    load(x, z, true);
+                }
+            } catch (Throwable e) {
+                Iris.reportError(e);
+            } finally {
+                prefetching.remove(k);
+                prefetchPermits.release();
+            }
+        });
+    }
+
+    /**
+     * Prefetch every Tectonic Plate within the radius around the given plate
+     *
+     * @param x      the region x
+     * @param z      the region z
+     * @param radius the radius in plates
+     */
+    @RegionCoordinates
+    public void prefetch(int x, int z, int radius) {
+        for (int i = -radius; i <= radius; i++) {
+            for (int j = -radius; j <= radius; j++) {
+                prefetch(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Prefetch the Tectonic Plates ahead of the given plate along a direction
+     *
+     * @param x        the region x
+     * @param z        the region z
+     * @param dx       the direction x (any length)
+     * @param dz       the direction z (any length)
+     * @param distance how many plates ahead to prefetch
+     */
+    @RegionCoordinates
+    public void prefetch(int x, int z, double dx, double dz, int distance) {
+        double l = Math.sqrt((dx * dx) + (dz * dz));
+
+        if (l == 0) {
+            return;
+        }
+
+        for (int i = 1; i <= distance; i++) {
+            prefetch(x + (int) Math.round(dx / l * i), z + (int) Math.round(dz / l * i));
+        }
     }
 
     public void saveAll() {
@@ -19,11 +19,13 @@
 package com.volmit.iris.util.mantle;
 
 import com.volmit.iris.Iris;
+import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.matter.IrisMatter;
 import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterPlacement;
 import com.volmit.iris.util.matter.MatterSlice;
 import lombok.Getter;
 import lombok.Synchronized;
@@ -31,6 +33,7 @@ import lombok.Synchronized;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
@@ -47,6 +50,8 @@ public class MantleChunk {
     private final AtomicIntegerArray flags;
     private final AtomicReferenceArray<Matter> sections;
     private final AtomicInteger ref = new AtomicInteger();
+    private static final MatterPlacement NO_PLACEMENT = new MatterPlacement("", -1);
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
 
     /**
      * Create a mantle chunk
@@ -102,6 +107,48 @@ public class MantleChunk {
                 TectonicPlate.addError();
             }
         }
+
+        boolean migrated = migratePlacements();
+        clearDirty();
+
+        if (migrated) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Convert legacy "key@id" string placements into placement slices
+     *
+     * @return true if any section was migrated
+     */
+    private boolean migratePlacements() {
+        boolean migrated = false;
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter == null || !matter.hasSlice(String.class)) {
+                continue;
+            }
+
+            MatterSlice<String> legacy = matter.getSlice(String.class);
+            MatterSlice<MatterPlacement> slice = matter.slice(MatterPlacement.class);
+            KMap<String, MatterPlacement> parsed = new KMap<>();
+            legacy.iterateSync((x, y, z, v) -> {
+                MatterPlacement p = parsed.computeIfAbsent(v, (k) -> {
+                    MatterPlacement m = MatterPlacement.parse(k);
+                    return m == null ? NO_PLACEMENT : m;
+                });
+
+                if (p != NO_PLACEMENT) {
+                    slice.set(x, y, z, p);
+                }
+            });
+            matter.deleteSlice(String.class);
+            migrated = true;
+        }
+
+        return migrated;
     }
 
     public boolean inUse() {
@@ -119,7 +166,9 @@ public class MantleChunk {
 
     @Synchronized
     public void flag(MantleFlag flag, boolean f) {
-        flags.set(flag.ordinal(), f ? 1 : 0);
+        if (flags.getAndSet(flag.ordinal(), f ? 1 : 0) != (f ? 1 : 0)) {
+            dirty.set(true);
+        }
     }
 
     @Synchronized
@@ -134,6 +183,51 @@ public class MantleChunk {
         return flags.get(flag.ordinal()) == 1;
     }
 
+    /**
+     * Check if this chunk changed since it was last saved. Flags and sections are tracked
+     * here, block level writes are tracked by the slices of each section.
+     *
+     * @return true if the chunk has unsaved changes
+     */
+    public boolean isDirty() {
+        if (dirty.get()) {
+            return true;
+        }
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null && matter.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Mark this chunk as changed so it will be saved with its plate
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Mark this chunk and all of its sections as saved. Call this before serializing the
+     * chunk so writes racing with the save mark it dirty again.
+     */
+    public void clearDirty() {
+        dirty.set(false);
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null) {
+                matter.clearDirty();
+            }
+        }
+    }
+
     /**
      * Check if a section exists (same as get(section) != null)
      *
@@ -172,7 +266,9 @@ public class MantleChunk {
      */
     @ChunkCoordinates
     public void delete(int section) {
-        sections.set(section, null);
+        if (sections.getAndSet(section, null) != null) {
+            dirty.set(true);
+        }
     }
 
     /**
@@ -188,6 +284,7 @@ public class MantleChunk {
         if (matter == null) {
             matter = new IrisMatter(16, 16, 16);
             sections.set(section, matter);
+            dirty.set(true);
         }
 
         return matter;
@@ -243,6 +340,25 @@ public class MantleChunk {
         }
     }
 
+    /**
+     * Estimate the retained heap size of this chunk
+     *
+     * @return the estimated size in bytes
+     */
+    public long getWeight() {
+        long w = 64 + (sections.length() * 8L) + (flags.length() * 4L);
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null) {
+                w += matter.getWeight();
+            }
+        }
+
+        return w;
+    }
+
     public <T> void iterate(Class<T> type, Consumer4<Integer, Integer, Integer, T> iterator) {
         for (int i = 0; i < sections.length(); i++) {
             int bs = (i << 4);
@@ -263,6 +379,7 @@ public class MantleChunk {
             Matter m = sections.get(i);
             if (m != null && m.hasSlice(c)) {
                 m.deleteSlice(c);
+                dirty.set(true);
             }
         }
     }
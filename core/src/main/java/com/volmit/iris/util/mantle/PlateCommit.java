@@ -0,0 +1,170 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.scheduling.PrecisionStopwatch;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Groups the disk work of saving many tectonic plates into one commit. Plates write their
+ * snapshots into temporary files and append their logs without syncing, the commit then
+ * forces every file to disk in one pass, atomically moves the snapshots over the old ones,
+ * syncs the touched folders once and only then drops obsolete logs. A crash at any point
+ * leaves either the old or the new plate on disk, never a truncated one.
+ */
+public class PlateCommit {
+    private final KList<Entry> entries = new KList<>();
+
+    /**
+     * Sync a file which was written in place (a log append)
+     *
+     * @param file     the file
+     * @param rollback called if the file could not be committed
+     */
+    public synchronized void sync(Path file, Runnable rollback) {
+        entries.add(new Entry(file, null, null, rollback));
+    }
+
+    /**
+     * Sync a temporary file and atomically move it over its target
+     *
+     * @param temp     the written temporary file
+     * @param target   the file to replace
+     * @param obsolete a file to delete once the target was replaced or null
+     * @param rollback called if the file could not be committed
+     */
+    public synchronized void replace(Path temp, Path target, Path obsolete, Runnable rollback) {
+        entries.add(new Entry(temp, target, obsolete, rollback));
+    }
+
+    /**
+     * @return the amount of files in this commit
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Commit all files. Files which fail are rolled back, the rest are still committed.
+     *
+     * @throws IOException the first failure if any file could not be committed
+     */
+    public synchronized void complete() throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        PrecisionStopwatch p = PrecisionStopwatch.start();
+        IOException error = null;
+
+        for (Entry i : entries) {
+            try (FileChannel fc = FileChannel.open(i.file, StandardOpenOption.WRITE)) {
+                fc.force(true);
+            } catch (IOException e) {
+                i.failed = true;
+                error = suppress(error, e);
+            }
+        }
+
+        KSet<Path> folders = new KSet<>();
+        for (Entry i : entries) {
+            if (i.failed || i.target == null) {
+                continue;
+            }
+
+            try {
+                try {
+                    Files.move(i.file, i.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(i.file, i.target, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                folders.add(i.target.toAbsolutePath().getParent());
+            } catch (IOException e) {
+                i.failed = true;
+                error = suppress(error, e);
+            }
+        }
+
+        for (Path i : folders) {
+            try (FileChannel fc = FileChannel.open(i, StandardOpenOption.READ)) {
+                fc.force(true);
+            } catch (IOException ignored) {
+                // Not every platform can sync a folder, the rename is still atomic
+            }
+        }
+
+        for (Entry i : entries) {
+            if (i.failed) {
+                i.rollback.run();
+                continue;
+            }
+
+            if (i.obsolete != null) {
+                try {
+                    Files.deleteIfExists(i.obsolete);
+                } catch (IOException e) {
+                    Iris.reportError(e);
+                }
+            }
+        }
+
+        Iris.debug("Committed " + entries.size() + " Tectonic Plate files in " + Form.duration(p.getMilliseconds(), 2));
+        entries.clear();
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static IOException suppress(IOException error, IOException e) {
+        if (error == null) {
+            return e;
+        }
+
+        error.addSuppressed(e);
+        return error;
+    }
+
+    private static class Entry {
+        private final Path file;
+        private final Path target;
+        private final Path obsolete;
+        private final Runnable rollback;
+        private boolean failed;
+
+        private Entry(Path file, Path target, Path obsolete, Runnable rollback) {
+            this.file = file;
+            this.target = target;
+            this.obsolete = obsolete;
+            this.rollback = rollback;
+        }
+    }
+}
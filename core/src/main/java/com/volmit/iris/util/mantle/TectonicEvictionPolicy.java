@@ -0,0 +1,35 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.mantle;
+
+/**
+ * Determines which tectonic plates are unloaded first once the mantle is over its memory budget
+ */
+public enum TectonicEvictionPolicy {
+    /**
+     * Unload the plates that have gone the longest without being accessed
+     */
+    LRU,
+
+    /**
+     * Unload the plates that have been accessed the least (with aging), ties broken by recency
+     */
+    LFU
+}
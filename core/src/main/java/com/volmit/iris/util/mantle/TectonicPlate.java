@@ -21,6 +21,7 @@ package com.volmit.iris.util.mantle;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.EnginePanic;
 import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.format.C;
@@ -32,22 +33,41 @@ import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Tectonic Plates are essentially representations of regions in minecraft.
  * Tectonic Plates are fully atomic & thread safe
+ * <p>
+ * A plate is stored as a full snapshot plus an append only log of chunk records. Saving a
+ * plate only appends the chunks which changed since the last save, the log is compacted
+ * back into the snapshot once it grows too large or most of the plate changed. The log
+ * header carries the generation of the snapshot it belongs to so a log left behind by an
+ * interrupted compaction is never replayed over a newer snapshot. Snapshots end with a
+ * checksum so corrupt plates are detected instead of being read as partial data.
  */
 public class TectonicPlate {
     private static final KSet<Thread> errors = new KSet<>();
+    private static final int LOG_MAGIC = 0x54504C47;
+    private static final int COMPACT_CHUNKS = 256;
+    private static final long COMPACT_LOG_SIZE = 65536;
 
     private final int sectionHeight;
     private final AtomicReferenceArray<MantleChunk> chunks;
+    private final AtomicIntegerArray removed;
+    private long generation;
+    private long logSize;
 
     @Getter
     private final int x;
@@ -63,6 +83,7 @@ public class TectonicPlate {
     public TectonicPlate(int worldHeight, int x, int z) {
         this.sectionHeight = worldHeight >> 4;
         this.chunks = new AtomicReferenceArray<>(1024);
+        this.removed = new AtomicIntegerArray(1024);
         this.x = x;
         this.z = z;
     }
@@ -75,8 +96,16 @@ public class TectonicPlate {
      * @throws IOException            shit happens yo
      */
     public TectonicPlate(int worldHeight, CountingDataInputStream din) throws IOException {
+        this(worldHeight, din, new CRC32());
+    }
+
+    private TectonicPlate(int worldHeight, CountingDataInputStream raw, CRC32 crc) throws IOException {
+        this(worldHeight, raw, CountingDataInputStream.wrap(new CheckedInputStream(raw, crc)), crc);
+    }
+
+    private TectonicPlate(int worldHeight, CountingDataInputStream raw, CountingDataInputStream din, CRC32 crc) throws IOException {
         this(worldHeight, din.readInt(), din.readInt());
-        if (!din.markSupported())
+        if (!raw.markSupported())
             throw new IOException("Mark not supported!");
 
         for (int i = 0; i < chunks.length(); i++) {
@@ -98,25 +127,49 @@ public class TectonicPlate {
                 Iris.panic();
 
                 din.skipTo(end);
+                removed.set(i, 1);
                 TectonicPlate.addError();
             }
         }
+
+        try {
+            generation = din.readLong();
+        } catch (EOFException e) {
+            generation = 0;
+            return;
+        }
+
+        long actual = crc.getValue();
+        long expected;
+        try {
+            expected = raw.readLong();
+        } catch (EOFException e) {
+            throw new IOException("Tectonic Plate " + x + " " + z + " is missing its checksum", e);
+        }
+
+        if (actual != expected) {
+            throw new IOException("Tectonic Plate " + x + " " + z + " failed its checksum (expected " + Long.toHexString(expected) + " but read " + Long.toHexString(actual) + ")");
+        }
     }
 
     public static TectonicPlate read(int worldHeight, File file) throws IOException {
-        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
             fc.lock();
 
             InputStream fin = Channels.newInputStream(fc);
             LZ4BlockInputStream lz4 = new LZ4BlockInputStream(fin);
             BufferedInputStream bis = new BufferedInputStream(lz4);
+            TectonicPlate plate;
             try (CountingDataInputStream din = CountingDataInputStream.wrap(bis)) {
-                return new TectonicPlate(worldHeight, din);
+                plate = new TectonicPlate(worldHeight, din);
             }
+
+            plate.replay(logFile(file));
+            return plate;
         } finally {
             if (errors.remove(Thread.currentThread())) {
                 File dump = Iris.instance.getDataFolder("dump", file.getName() + ".bin");
-                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
+                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
                     fc.lock();
 
                     InputStream fin = Channels.newInputStream(fc);
@@ -127,6 +180,75 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Get the chunk log belonging to a plate file
+     *
+     * @param file the plate file
+     * @return the log file next to it
+     */
+    public static File logFile(File file) {
+        return new File(file.getParentFile(), file.getName() + ".log");
+    }
+
+    /**
+     * Apply the chunk records of a log on top of this plate. Records past a torn or
+     * corrupt tail are dropped and truncated away by the next append.
+     *
+     * @param log the log file
+     * @throws IOException shit happens
+     */
+    private void replay(File log) throws IOException {
+        logSize = 0;
+
+        if (!log.exists()) {
+            return;
+        }
+
+        int records = 0;
+        try (CountingDataInputStream din = CountingDataInputStream.wrap(new BufferedInputStream(new FileInputStream(log)))) {
+            if (din.readInt() != LOG_MAGIC || din.readLong() != generation) {
+                Iris.debug("Ignoring stale Tectonic Plate log " + C.DARK_GREEN + log.getName());
+                return;
+            }
+
+            logSize = din.count();
+
+            while (true) {
+                int index = din.readInt();
+                int length = din.readInt();
+
+                if (index < 0 || index >= chunks.length() || length > log.length()) {
+                    Iris.warn("Corrupt record in Tectonic Plate log " + log.getName() + ", dropping the rest of it");
+                    break;
+                }
+
+                if (length < 0) {
+                    chunks.set(index, null);
+                } else {
+                    byte[] data = new byte[length];
+                    din.readFully(data);
+
+                    try (CountingDataInputStream cin = CountingDataInputStream.wrap(new LZ4BlockInputStream(new ByteArrayInputStream(data)))) {
+                        chunks.set(index, new MantleChunk(sectionHeight, cin));
+                    } catch (Throwable e) {
+                        Iris.error("Failed to read logged chunk, keeping the snapshot chunk instead.");
+                        Iris.reportError(e);
+                        e.printStackTrace();
+                    }
+                }
+
+                logSize = din.count();
+                records++;
+            }
+        } catch (EOFException ignored) {
+
+        }
+
+        if (records > 0) {
+            Iris.debug("Replayed " + records + " logged chunks into Tectonic Plate " + C.DARK_GREEN + x + " " + z);
+        }
+    }
+
     public boolean inUse() {
         for (int i = 0; i < chunks.length(); i++) {
             MantleChunk chunk = chunks.get(i);
@@ -136,6 +258,25 @@ public class TectonicPlate {
         return false;
     }
 
+    /**
+     * Estimate the retained heap size of this plate and all of its chunks
+     *
+     * @return the estimated size in bytes
+     */
+    public long getWeight() {
+        long w = 64 + (chunks.length() * 8L);
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null) {
+                w += chunk.getWeight();
+            }
+        }
+
+        return w;
+    }
+
     /**
      * Check if a chunk exists in this plate or not (same as get(x, z) != null)
      *
@@ -165,7 +306,9 @@ public class TectonicPlate {
      */
     public void clear() {
         for (int i = 0; i < chunks.length(); i++) {
-            chunks.set(i, null);
+            if (chunks.getAndSet(i, null) != null) {
+                removed.set(i, 1);
+            }
         }
     }
 
@@ -177,7 +320,11 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public void delete(int x, int z) {
-        chunks.set(index(x, z), null);
+        int i = index(x, z);
+
+        if (chunks.getAndSet(i, null) != null) {
+            removed.set(i, 1);
+        }
     }
 
     /**
@@ -201,20 +348,209 @@ public class TectonicPlate {
     }
 
     /**
-     * Write this tectonic plate to file
+     * Get the indexes of all chunks which changed or were removed since the last save
+     *
+     * @return the dirty chunk indexes
+     */
+    private KList<Integer> getDirtyChunks() {
+        KList<Integer> dirty = new KList<>();
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null ? chunk.isDirty() : removed.get(i) == 1) {
+                dirty.add(i);
+            }
+        }
+
+        return dirty;
+    }
+
+    /**
+     * Check if any chunk of this plate changed since the last save
+     *
+     * @return true if the plate has unsaved changes
+     */
+    public boolean isDirty() {
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null ? chunk.isDirty() : removed.get(i) == 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Write this tectonic plate to file and commit it to disk right away
      *
      * @param file the file to writeNodeData it to
      * @throws IOException shit happens
      */
     public void write(File file) throws IOException {
+        PlateCommit commit = new PlateCommit();
+        write(file, commit);
+        commit.complete();
+    }
+
+    /**
+     * Write this tectonic plate to file as part of a commit. Only chunks which changed since
+     * the last save are written, either appended to the log or by compacting the whole plate.
+     * Nothing is durable until the commit completes.
+     *
+     * @param file   the file to writeNodeData it to
+     * @param commit the commit to sync the written files with
+     * @throws IOException shit happens
+     */
+    public synchronized void write(File file, PlateCommit commit) throws IOException {
         PrecisionStopwatch p = PrecisionStopwatch.start();
-        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC)) {
+        KList<Integer> dirty = getDirtyChunks();
+
+        if (file.exists()) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+
+            if (dirty.size() <= COMPACT_CHUNKS && logSize <= Math.max(COMPACT_LOG_SIZE, file.length() / 2)) {
+                append(logFile(file), dirty, commit);
+                Iris.debug("Appended " + dirty.size() + " chunks to Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+                return;
+            }
+        }
+
+        compact(file, commit);
+        Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+    }
+
+    /**
+     * Rewrite the full snapshot into a temporary file under a new generation. The commit
+     * moves it over the old snapshot and drops the log.
+     *
+     * @param file   the plate file
+     * @param commit the commit
+     * @throws IOException shit happens
+     */
+    private void compact(File file, PlateCommit commit) throws IOException {
+        long previous = generation;
+        long previousLog = logSize;
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        generation = ThreadLocalRandom.current().nextLong();
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+            removed.set(i, 0);
+
+            if (chunk != null) {
+                chunk.clearDirty();
+            }
+        }
+
+        try (FileChannel fc = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
             fc.lock();
 
             OutputStream fos = Channels.newOutputStream(fc);
             try (DataOutputStream dos = new DataOutputStream(new LZ4BlockOutputStream(fos))) {
                 write(dos);
-                Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+            }
+        } catch (IOException e) {
+            generation = previous;
+            markDirty(null);
+            throw e;
+        }
+
+        logSize = 0;
+        commit.replace(temp.toPath(), file.toPath(), logFile(file).toPath(), () -> {
+            synchronized (this) {
+                generation = previous;
+                logSize = previousLog;
+                markDirty(null);
+            }
+        });
+    }
+
+    /**
+     * Append records for the given chunks to the log, truncating any torn tail first
+     *
+     * @param log    the log file
+     * @param dirty  the chunk indexes to append
+     * @param commit the commit
+     * @throws IOException shit happens
+     */
+    private void append(File log, KList<Integer> dirty, PlateCommit commit) throws IOException {
+        long previousLog = logSize;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        DataOutputStream dos = new DataOutputStream(out);
+
+        if (logSize == 0) {
+            dos.writeInt(LOG_MAGIC);
+            dos.writeLong(generation);
+        }
+
+        var bytes = new ByteArrayOutputStream(8192);
+        for (int i : dirty) {
+            MantleChunk chunk = chunks.get(i);
+            removed.set(i, 0);
+            dos.writeInt(i);
+
+            if (chunk == null) {
+                dos.writeInt(-1);
+                continue;
+            }
+
+            try {
+                chunk.clearDirty();
+                try (DataOutputStream sub = new DataOutputStream(new LZ4BlockOutputStream(bytes))) {
+                    chunk.write(sub);
+                }
+                dos.writeInt(bytes.size());
+                bytes.writeTo(dos);
+            } finally {
+                bytes.reset();
+            }
+        }
+
+        try (FileChannel fc = FileChannel.open(log.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            fc.lock();
+            fc.truncate(logSize);
+            fc.position(logSize);
+
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                fc.write(buffer);
+            }
+        } catch (IOException e) {
+            markDirty(dirty);
+            throw e;
+        }
+
+        logSize += out.size();
+        commit.sync(log.toPath(), () -> {
+            synchronized (this) {
+                logSize = previousLog;
+                markDirty(dirty);
+            }
+        });
+    }
+
+    /**
+     * Mark chunks as unsaved again after a failed save
+     *
+     * @param indexes the chunk indexes or null for all chunks
+     */
+    private void markDirty(KList<Integer> indexes) {
+        for (int i = 0; i < chunks.length(); i++) {
+            if (indexes != null && !indexes.contains(i)) {
+                continue;
+            }
+
+            MantleChunk chunk = chunks.get(i);
+
+            if (chunk != null) {
+                chunk.markDirty();
+            } else {
+                removed.set(i, 1);
             }
         }
     }
@@ -222,10 +558,12 @@ public class TectonicPlate {
     /**
      * Write this tectonic plate to a data stream
      *
-     * @param dos the data output
+     * @param out the data output
      * @throws IOException shit happens
      */
-    public void write(DataOutputStream dos) throws IOException {
+    public void write(DataOutputStream out) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream dos = new DataOutputStream(new CheckedOutputStream(out, crc));
         dos.writeInt(x);
         dos.writeInt(z);
 
@@ -246,6 +584,10 @@ public class TectonicPlate {
                 dos.writeInt(0);
             }
         }
+
+        dos.writeLong(generation);
+        dos.flush();
+        out.writeLong(crc.getValue());
     }
 
     public static void addError() {
@@ -0,0 +1,388 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.math.M;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Holds the loaded tectonic plates of a mantle. Each plate is weighed by its estimated
+ * retained size (from the matter slices it holds) so that the mantle can unload plates
+ * by recency or frequency until it fits into a heap budget instead of a plate count.
+ */
+public class TectonicPlateCache implements MeteredCache {
+    private final KMap<Long, Entry> plates;
+    private final AtomicLong weight;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong loads;
+    private final AtomicLong evictions;
+    private final AtomicLong prefetches;
+    private final AtomicLong prefetchHits;
+    private final AtomicLong prefetchWasted;
+    private final BooleanSupplier closed;
+    @Getter
+    @Setter
+    private volatile long budget;
+    @Getter
+    @Setter
+    private volatile TectonicEvictionPolicy policy;
+
+    public TectonicPlateCache(long budget, TectonicEvictionPolicy policy, BooleanSupplier closed) {
+        this.plates = new KMap<>();
+        this.weight = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.loads = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.prefetches = new AtomicLong();
+        this.prefetchHits = new AtomicLong();
+        this.prefetchWasted = new AtomicLong();
+        this.budget = budget;
+        this.policy = policy;
+        this.closed = closed;
+    }
+
+    /**
+     * Get a loaded plate and mark it as used
+     *
+     * @param key the region key
+     * @return the plate or null if it is not loaded
+     */
+    public TectonicPlate get(Long key) {
+        Entry e = plates.get(key);
+
+        if (e == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+
+        if (e.prefetched) {
+            e.prefetched = false;
+            prefetchHits.incrementAndGet();
+        }
+
+        e.touch();
+        return e.plate;
+    }
+
+    /**
+     * Get a loaded plate without touching it or counting the access
+     *
+     * @param key the region key
+     * @return the plate or null if it is not loaded
+     */
+    public TectonicPlate peek(Long key) {
+        Entry e = plates.get(key);
+        return e == null ? null : e.plate;
+    }
+
+    /**
+     * Mark a plate as recently used without counting an access
+     *
+     * @param key the region key
+     */
+    public void touch(Long key) {
+        Entry e = plates.get(key);
+
+        if (e != null) {
+            e.lastUse = M.ms();
+        }
+    }
+
+    /**
+     * Insert a freshly loaded or created plate
+     *
+     * @param key   the region key
+     * @param plate the plate
+     */
+    public void put(Long key, TectonicPlate plate) {
+        put(key, plate, false);
+    }
+
+    /**
+     * Insert a freshly loaded or created plate
+     *
+     * @param key        the region key
+     * @param plate      the plate
+     * @param prefetched if the plate was loaded ahead of use by a prefetch
+     */
+    public void put(Long key, TectonicPlate plate, boolean prefetched) {
+        Entry e = new Entry(plate);
+        e.prefetched = prefetched;
+
+        if (prefetched) {
+            prefetches.incrementAndGet();
+        }
+
+        e.weight = plate.getWeight();
+        weight.addAndGet(e.weight);
+        loads.incrementAndGet();
+        Entry old = plates.put(key, e);
+
+        if (old != null) {
+            weight.addAndGet(-old.weight);
+        }
+    }
+
+    /**
+     * Remove a plate after it was written out
+     *
+     * @param key the region key
+     * @return the removed plate or null
+     */
+    public TectonicPlate evict(Long key) {
+        Entry e = plates.remove(key);
+
+        if (e == null) {
+            return null;
+        }
+
+        weight.addAndGet(-e.weight);
+        evictions.incrementAndGet();
+
+        if (e.prefetched) {
+            prefetchWasted.incrementAndGet();
+        }
+
+        return e.plate;
+    }
+
+    public boolean containsKey(Long key) {
+        return plates.containsKey(key);
+    }
+
+    public int size() {
+        return plates.size();
+    }
+
+    public Set<Long> keySet() {
+        return plates.keySet();
+    }
+
+    public void clear() {
+        plates.clear();
+        weight.set(0);
+    }
+
+    /**
+     * Re-measure every loaded plate and age the access counters used by {@link TectonicEvictionPolicy#LFU}
+     *
+     * @return the total weight in bytes
+     */
+    public long reweigh() {
+        long total = 0;
+
+        for (Entry e : plates.values()) {
+            e.weight = e.plate.getWeight();
+            e.uses.set(e.uses.get() >> 1);
+            total += e.weight;
+        }
+
+        weight.set(total);
+        return total;
+    }
+
+    /**
+     * Pick the plates that should be unloaded. Plates idle for longer than the idle
+     * duration are always picked, then more plates are picked in eviction policy order
+     * until the remaining weight fits into the budget. Plates in use are never picked.
+     *
+     * @param idleDuration the maximum idle time in milliseconds
+     * @return the region keys to unload
+     */
+    public KList<Long> victims(long idleDuration) {
+        long now = M.ms();
+        long remaining = weight.get();
+        KList<Long> victims = new KList<>();
+        KList<Long> candidates = new KList<>();
+
+        for (Long i : plates.keySet()) {
+            Entry e = plates.get(i);
+
+            if (e == null || e.plate.inUse()) {
+                continue;
+            }
+
+            if (now - e.lastUse >= idleDuration) {
+                victims.add(i);
+                remaining -= e.weight;
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        if (remaining <= budget || candidates.isEmpty()) {
+            return victims;
+        }
+
+        candidates.sort(comparator());
+
+        for (Long i : candidates) {
+            if (remaining <= budget) {
+                break;
+            }
+
+            Entry e = plates.get(i);
+
+            if (e != null) {
+                victims.add(i);
+                remaining -= e.weight;
+            }
+        }
+
+        return victims;
+    }
+
+    private Comparator<Long> comparator() {
+        Comparator<Long> lru = Comparator.comparingLong(i -> {
+            Entry e = plates.get(i);
+            return e == null ? Long.MIN_VALUE : e.lastUse;
+        });
+
+        if (policy == TectonicEvictionPolicy.LFU) {
+            return Comparator.<Long>comparingLong(i -> {
+                Entry e = plates.get(i);
+                return e == null ? Long.MIN_VALUE : e.uses.get();
+            }).thenComparing(lru);
+        }
+
+        return lru;
+    }
+
+    @Override
+    public long getSize() {
+        return plates.size();
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return true;
+    }
+
+    @Override
+    public long getWeightedSize() {
+        return weight.get();
+    }
+
+    @Override
+    public double getUsage() {
+        return (double) weight.get() / (double) budget;
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return null;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return budget;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.getAsBoolean();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the amount of plate accesses which were served by a prefetched plate
+     */
+    public long getPrefetchHitCount() {
+        return prefetchHits.get();
+    }
+
+    /**
+     * @return the amount of plates loaded by prefetching
+     */
+    public long getPrefetchCount() {
+        return prefetches.get();
+    }
+
+    /**
+     * @return the amount of prefetched plates which were unloaded before they were ever used
+     */
+    public long getPrefetchWastedCount() {
+        return prefetchWasted.get();
+    }
+
+    /**
+     * The share of plate accesses that had to wait for a plate to load which were instead
+     * served by a prefetched plate. 1 means generation never waited on a plate read.
+     *
+     * @return the prefetch hit rate
+     */
+    public double getPrefetchHitRate() {
+        long h = prefetchHits.get();
+        long t = h + misses.get();
+        return t == 0 ? 0 : (double) h / t;
+    }
+
+    private static class Entry {
+        private final TectonicPlate plate;
+        private final AtomicLong uses;
+        private volatile long lastUse;
+        private volatile long weight;
+        private volatile boolean prefetched;
+
+        private Entry(TectonicPlate plate) {
+            this.plate = plate;
+            this.uses = new AtomicLong(1);
+            this.lastUse = M.ms();
+        }
+
+        private void touch() {
+            lastUse = M.ms();
+            uses.incrementAndGet();
+        }
+    }
+}
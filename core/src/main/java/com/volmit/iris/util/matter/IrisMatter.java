@@ -25,8 +25,11 @@ import com.volmit.iris.util.json.JSONObject;
 import com.volmit.iris.util.plugin.VolmitSender;
 import lombok.Getter;
 
+import java.lang.reflect.Constructor;
+
 public class IrisMatter extends IrisRegistrant implements Matter {
     protected static final KMap<Class<?>, MatterSlice<?>> slicers = buildSlicers();
+    private static final KMap<Class<?>, Constructor<?>> constructors = buildConstructors();
 
     @Getter
     private final MatterHeader header;
@@ -65,16 +68,29 @@ public class IrisMatter extends IrisRegistrant implements Matter {
         return c;
     }
 
+    private static KMap<Class<?>, Constructor<?>> buildConstructors() {
+        KMap<Class<?>, Constructor<?>> c = new KMap<>();
+        slicers.forEach((k, v) -> {
+            try {
+                c.put(k, v.getClass().getConstructor(int.class, int.class, int.class));
+            } catch (NoSuchMethodException e) {
+                Iris.reportError(e);
+            }
+        });
+
+        return c;
+    }
+
     @Override
     public <T> MatterSlice<T> createSlice(Class<T> type, Matter m) {
-        MatterSlice<?> slice = slicers.get(type);
+        Constructor<?> constructor = constructors.get(type);
 
-        if (slice == null) {
+        if (constructor == null) {
             return null;
         }
 
         try {
-            return slice.getClass().getConstructor(int.class, int.class, int.class).newInstance(getWidth(), getHeight(), getDepth());
+            return (MatterSlice<T>) constructor.newInstance(getWidth(), getHeight(), getDepth());
         } catch (Throwable e) {
             e.printStackTrace();
         }
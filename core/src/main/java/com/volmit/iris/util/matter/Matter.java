@@ -22,6 +22,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisPosition;
 import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.mantle.TectonicPlate;
@@ -52,7 +53,12 @@ import java.util.function.Function;
  * ??? nodeData
  */
 public interface Matter {
-    int VERSION = 1;
+    /**
+     * Version 1 names every slice by its class name, version 2 by its id in the
+     * {@link MatterSliceRegistry}
+     */
+    int VERSION = 2;
+    int VERSION_NAMED_SLICES = 1;
 
     static long convert(File folder) {
         if (folder.isDirectory()) {
@@ -145,11 +151,13 @@ public interface Matter {
 
             Iris.addPanic("read.matter.slice", i + "");
             try {
-                String cn = din.readUTF();
-                Iris.addPanic("read.matter.slice.class", cn);
-
-                Class<?> type = Class.forName(cn);
+                Class<?> type = readSliceType(din, matter.getHeader().getVersion());
                 MatterSlice<?> slice = matter.createSlice(type, matter);
+
+                if (slice == null) {
+                    throw new IOException("No slice for type " + type.getCanonicalName());
+                }
+
                 slice.read(din);
                 matter.putSlice(type, slice);
             } catch (Throwable e) {
@@ -169,6 +177,24 @@ public interface Matter {
         return matter;
     }
 
+    private static Class<?> readSliceType(DataInputStream din, int version) throws IOException, ClassNotFoundException {
+        int id = version <= VERSION_NAMED_SLICES ? MatterSliceRegistry.UNREGISTERED : Varint.readUnsignedVarInt(din);
+
+        if (id == MatterSliceRegistry.UNREGISTERED) {
+            String cn = din.readUTF();
+            Iris.addPanic("read.matter.slice.class", cn);
+            return Class.forName(cn);
+        }
+
+        Class<?> type = MatterSliceRegistry.getType(id);
+
+        if (type == null) {
+            throw new IOException("Unknown slice type id " + id);
+        }
+
+        return type;
+    }
+
     default Matter copy() {
         Matter m = new IrisMatter(getWidth(), getHeight(), getDepth());
         getSliceMap().forEach((k, v) -> m.slice(k).forceInject(v));
@@ -387,6 +413,30 @@ public interface Matter {
         out.close();
     }
 
+    /**
+     * Check if any slice of this matter was written to since it was last saved
+     *
+     * @return true if the matter has unsaved changes
+     */
+    default boolean isDirty() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            if (i.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Mark all slices of this matter as saved
+     */
+    default void clearDirty() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            i.clearDirty();
+        }
+    }
+
     /**
      * Remove any slices that are empty
      */
@@ -427,12 +477,20 @@ public interface Matter {
         dos.writeInt(getHeight());
         dos.writeInt(getDepth());
         dos.writeByte(getSliceTypes().size());
+        getHeader().setVersion(VERSION);
         getHeader().write(dos);
 
         var bytes = new ByteArrayOutputStream(1024);
         var sub = new DataOutputStream(bytes);
         for (Class<?> i : getSliceTypes()) {
             try {
+                int id = MatterSliceRegistry.getId(i);
+                Varint.writeUnsignedVarInt(id, sub);
+
+                if (id == MatterSliceRegistry.UNREGISTERED) {
+                    sub.writeUTF(i.getCanonicalName());
+                }
+
                 getSlice(i).write(sub);
                 dos.writeInt(bytes.size());
                 bytes.writeTo(dos);
@@ -442,6 +500,21 @@ public interface Matter {
         }
     }
 
+    /**
+     * Estimate the retained heap size of this matter and all of its slices
+     *
+     * @return the estimated size in bytes
+     */
+    default long getWeight() {
+        long w = 128;
+
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            w += i.getWeight();
+        }
+
+        return w;
+    }
+
     default int getTotalCount() {
         int m = 0;
 
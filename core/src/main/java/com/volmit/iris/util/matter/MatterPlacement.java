@@ -0,0 +1,61 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import lombok.Data;
+
+/**
+ * Identifies one placed object in the mantle. A placer creates one instance per placement
+ * and writes that same instance into every block, so each section palette holds every
+ * placement once and blocks only store its palette index.
+ */
+@Data
+public class MatterPlacement {
+    private final String key;
+    private final int id;
+
+    /**
+     * Parse the legacy "key@id" form
+     *
+     * @param s the legacy string
+     * @return the placement or null if the string is not a placement
+     */
+    public static MatterPlacement parse(String s) {
+        if (s == null) {
+            return null;
+        }
+
+        int at = s.lastIndexOf('@');
+
+        if (at <= 0) {
+            return null;
+        }
+
+        try {
+            return new MatterPlacement(s.substring(0, at), Integer.parseInt(s.substring(at + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return key + "@" + id;
+    }
+}
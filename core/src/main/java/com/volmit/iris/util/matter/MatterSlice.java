@@ -73,6 +73,22 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         inject((MatterSlice<T>) slice);
     }
 
+    /**
+     * Check if this slice was written to since it was last saved
+     *
+     * @return true if the slice has unsaved changes
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     * Mark this slice as saved
+     */
+    default void clearDirty() {
+
+    }
+
     void writeNode(T b, DataOutputStream dos) throws IOException;
 
     T readNode(DataInputStream din) throws IOException;
@@ -157,9 +173,13 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         return target;
     }
 
+    /**
+     * Write the contents of this slice. The slice type is written by the matter holding it.
+     *
+     * @param dos the output
+     * @throws IOException shit happens
+     */
     default void write(DataOutputStream dos) throws IOException {
-        dos.writeUTF(getType().getCanonicalName());
-
         if ((this instanceof PaletteOrHunk f && f.isPalette())) {
             f.palette().writeDos(dos);
             return;
@@ -205,6 +225,21 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         }
     }
 
+    /**
+     * Estimate the retained heap size of this slice in bytes. Paletted slices are
+     * weighed by their packed bit storage and palette, mapped slices by entry count.
+     *
+     * @return the estimated size in bytes
+     */
+    default long getWeight() {
+        if (this instanceof PaletteOrHunk f && f.isPalette()) {
+            DataContainer<T> c = f.palette();
+            return 64L + (c.getData().getRaw().length() * 8L) + (c.getPalette().size() * 32L);
+        }
+
+        return 64L + (getEntryCount() * 48L);
+    }
+
     default void rotateSliceInto(Matter n, double x, double y, double z) {
         rotate(x, y, z, (_x, _y, _z) -> n.slice(getType()));
     }
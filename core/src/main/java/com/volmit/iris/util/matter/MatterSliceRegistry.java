@@ -0,0 +1,93 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter;
+
+import com.volmit.iris.core.link.Identifier;
+import com.volmit.iris.engine.object.IrisSpawner;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.matter.slices.container.JigsawPieceContainer;
+import com.volmit.iris.util.matter.slices.container.JigsawStructuresContainer;
+import com.volmit.iris.util.nbt.tag.CompoundTag;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Stable numeric ids of slice types used by the matter format. Ids are the position in the
+ * table plus one and are written to disk, so types may only ever be appended. Id 0 marks a
+ * type outside of the table which is written by its class name instead.
+ */
+public final class MatterSliceRegistry {
+    public static final int UNREGISTERED = 0;
+    private static final Class<?>[] TYPES = {
+            BlockData.class,
+            MatterCavern.class,
+            MatterUpdate.class,
+            MatterMarker.class,
+            TileWrapper.class,
+            MatterEntityGroup.class,
+            String.class,
+            MatterPlacement.class,
+            Integer.class,
+            Long.class,
+            Boolean.class,
+            CompoundTag.class,
+            IrisSpawner.class,
+            MatterBiomeInject.class,
+            Identifier.class,
+            JigsawPieceContainer.class,
+            JigsawStructuresContainer.class
+    };
+    private static final KMap<Class<?>, Integer> ids = buildIds();
+
+    private MatterSliceRegistry() {
+
+    }
+
+    private static KMap<Class<?>, Integer> buildIds() {
+        KMap<Class<?>, Integer> m = new KMap<>();
+
+        for (int i = 0; i < TYPES.length; i++) {
+            if (m.put(TYPES[i], i + 1) != null) {
+                throw new IllegalStateException("Duplicate slice type " + TYPES[i].getCanonicalName());
+            }
+        }
+
+        return m;
+    }
+
+    /**
+     * Get the id of a slice type
+     *
+     * @param type the slice type
+     * @return the id or {@link #UNREGISTERED}
+     */
+    public static int getId(Class<?> type) {
+        Integer id = ids.get(type);
+        return id == null ? UNREGISTERED : id;
+    }
+
+    /**
+     * Get the slice type of an id
+     *
+     * @param id the id
+     * @return the slice type or null if the id is unknown
+     */
+    public static Class<?> getType(int id) {
+        return id < 1 || id > TYPES.length ? null : TYPES[id - 1];
+    }
+}
@@ -35,6 +35,7 @@ public abstract class RawMatter<T> extends PaletteOrHunk<T> implements MatterSli
     protected final KMap<Class<?>, MatterReader<?, T>> readers;
     @Getter
     private final Class<T> type;
+    private volatile boolean dirty;
 
     public RawMatter(int width, int height, int depth, Class<T> type) {
         super(width, height, depth, true, () -> new MappedHunk<>(width, height, depth));
@@ -51,6 +52,28 @@ public abstract class RawMatter<T> extends PaletteOrHunk<T> implements MatterSli
         readers.put(mediumType, injector);
     }
 
+    @Override
+    public void setRaw(int x, int y, int z, T t) {
+        dirty = true;
+        super.setRaw(x, y, z, t);
+    }
+
+    @Override
+    public void empty(T b) {
+        dirty = true;
+        super.empty(b);
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void clearDirty() {
+        dirty = false;
+    }
+
     @Override
     public <W> MatterWriter<W, T> writeInto(Class<W> mediumType) {
         return (MatterWriter<W, T>) writers.get(mediumType);
@@ -290,7 +290,7 @@ public class NBTWorld {
     }
 
     public long getIdleDuration(int x, int z) {
-        return hyperLock.withResult(x, z, () -> {
+        return hyperLock.withReadResult(x, z, () -> {
             Long l = lastUse.get(Cache.key(x, z));
             return l == null ? 0 : (M.ms() - l);
         });
@@ -316,7 +316,7 @@ public class NBTWorld {
     public MCAFile getMCAOrNull(int x, int z) {
         long key = Cache.key(x, z);
 
-        return hyperLock.withResult(x, z, () -> {
+        return hyperLock.withReadResult(x, z, () -> {
             if (loadedRegions.containsKey(key)) {
                 lastUse.put(key, M.ms());
                 return loadedRegions.get(key);
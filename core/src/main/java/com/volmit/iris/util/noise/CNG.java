@@ -41,16 +41,16 @@ import java.util.List;
 
 @Data
 public class CNG {
-    public static final NoiseInjector ADD = (s, v) -> new double[]{s + v, 1};
-    public static final NoiseInjector SRC_SUBTRACT = (s, v) -> new double[]{s - v < 0 ? 0 : s - v, -1};
-    public static final NoiseInjector DST_SUBTRACT = (s, v) -> new double[]{v - s < 0 ? 0 : s - v, -1};
-    public static final NoiseInjector MULTIPLY = (s, v) -> new double[]{s * v, 0};
-    public static final NoiseInjector MAX = (s, v) -> new double[]{Math.max(s, v), 0};
-    public static final NoiseInjector MIN = (s, v) -> new double[]{Math.min(s, v), 0};
-    public static final NoiseInjector SRC_MOD = (s, v) -> new double[]{s % v, 0};
-    public static final NoiseInjector SRC_POW = (s, v) -> new double[]{Math.pow(s, v), 0};
-    public static final NoiseInjector DST_MOD = (s, v) -> new double[]{v % s, 0};
-    public static final NoiseInjector DST_POW = (s, v) -> new double[]{Math.pow(v, s), 0};
+    public static final NoiseInjector ADD = NoiseInjector.of(1, (s, v) -> s + v);
+    public static final NoiseInjector SRC_SUBTRACT = NoiseInjector.of(-1, (s, v) -> s - v < 0 ? 0 : s - v);
+    public static final NoiseInjector DST_SUBTRACT = NoiseInjector.of(-1, (s, v) -> v - s < 0 ? 0 : s - v);
+    public static final NoiseInjector MULTIPLY = NoiseInjector.of(0, (s, v) -> s * v);
+    public static final NoiseInjector MAX = NoiseInjector.of(0, Math::max);
+    public static final NoiseInjector MIN = NoiseInjector.of(0, Math::min);
+    public static final NoiseInjector SRC_MOD = NoiseInjector.of(0, (s, v) -> s % v);
+    public static final NoiseInjector SRC_POW = NoiseInjector.of(0, Math::pow);
+    public static final NoiseInjector DST_MOD = NoiseInjector.of(0, (s, v) -> v % s);
+    public static final NoiseInjector DST_POW = NoiseInjector.of(0, (s, v) -> Math.pow(v, s));
     public static long hits = 0;
     public static long creates = 0;
     private final double opacity;
@@ -397,6 +397,42 @@ public class CNG {
         return v[fit(0, v.length - 1, dim)];
     }
 
+    public <T> T fit(T[] v, double x) {
+        if (v.length == 0) {
+            return null;
+        }
+
+        if (v.length == 1) {
+            return v[0];
+        }
+
+        return v[fit(0, v.length - 1, x)];
+    }
+
+    public <T> T fit(T[] v, double x, double z) {
+        if (v.length == 0) {
+            return null;
+        }
+
+        if (v.length == 1) {
+            return v[0];
+        }
+
+        return v[fit(0, v.length - 1, x, z)];
+    }
+
+    public <T> T fit(T[] v, double x, double y, double z) {
+        if (v.length == 0) {
+            return null;
+        }
+
+        if (v.length == 1) {
+            return v[0];
+        }
+
+        return v[fit(0, v.length - 1, x, y, z)];
+    }
+
     public <T> T fit(List<T> v, double... dim) {
         if (v.size() == 0) {
             return null;
@@ -415,6 +451,60 @@ public class CNG {
         return v.get(0);
     }
 
+    public <T> T fit(List<T> v, double x) {
+        if (v.size() == 0) {
+            return null;
+        }
+
+        if (v.size() == 1) {
+            return v.get(0);
+        }
+
+        try {
+            return v.get(fit(0, v.size() - 1, x));
+        } catch (Throwable e) {
+            Iris.reportError(e);
+        }
+
+        return v.get(0);
+    }
+
+    public <T> T fit(List<T> v, double x, double z) {
+        if (v.size() == 0) {
+            return null;
+        }
+
+        if (v.size() == 1) {
+            return v.get(0);
+        }
+
+        try {
+            return v.get(fit(0, v.size() - 1, x, z));
+        } catch (Throwable e) {
+            Iris.reportError(e);
+        }
+
+        return v.get(0);
+    }
+
+    public <T> T fit(List<T> v, double x, double y, double z) {
+        if (v.size() == 0) {
+            return null;
+        }
+
+        if (v.size() == 1) {
+            return v.get(0);
+        }
+
+        try {
+            return v.get(fit(0, v.size() - 1, x, y, z));
+        } catch (Throwable e) {
+            Iris.reportError(e);
+        }
+
+        return v.get(0);
+    }
+
     public int fit(int min, int max, double... dim) {
         if (min == max) {
             return min;
@@ -425,6 +515,30 @@ public class CNG {
         return (int) Math.round(IrisInterpolation.lerp(min, max, noise));
     }
 
+    public int fit(int min, int max, double x) {
+        if (min == max) {
+            return min;
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x)));
+    }
+
+    public int fit(int min, int max, double x, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x, z)));
+    }
+
+    public int fit(int min, int max, double x, double y, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x, y, z)));
+    }
+
     public int fit(double min, double max, double... dim) {
         if (min == max) {
             return (int) Math.round(min);
@@ -435,6 +549,30 @@ public class CNG {
         return (int) Math.round(IrisInterpolation.lerp(min, max, noise));
     }
 
+    public int fit(double min, double max, double x) {
+        if (min == max) {
+            return (int) Math.round(min);
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x)));
+    }
+
+    public int fit(double min, double max, double x, double z) {
+        if (min == max) {
+            return (int) Math.round(min);
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x, z)));
+    }
+
+    public int fit(double min, double max, double x, double y, double z) {
+        if (min == max) {
+            return (int) Math.round(min);
+        }
+
+        return (int) Math.round(IrisInterpolation.lerp(min, max, noise(x, y, z)));
+    }
+
     public double fitDouble(double min, double max, double... dim) {
         if (min == max) {
             return min;
@@ -445,6 +583,30 @@ public class CNG {
         return IrisInterpolation.lerp(min, max, noise);
     }
 
+    public double fitDouble(double min, double max, double x) {
+        if (min == max) {
+            return min;
+        }
+
+        return IrisInterpolation.lerp(min, max, noise(x));
+    }
+
+    public double fitDouble(double min, double max, double x, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return IrisInterpolation.lerp(min, max, noise(x, z));
+    }
+
+    public double fitDouble(double min, double max, double x, double y, double z) {
+        if (min == max) {
+            return min;
+        }
+
+        return IrisInterpolation.lerp(min, max, noise(x, y, z));
+    }
+
     private double getNoise(double... dim) {
         double scale = noscale ? 1 : this.bakedScale * this.scale;
 
@@ -469,6 +631,57 @@ public class CNG {
         return generator.noise(x * scale, y * scale, z * scale) * opacity;
     }
 
+    private double getNoise(double x) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, 0D * scale, 0D * scale) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise(x) - 0.5) * fscale);
+            return generator.noise(fx * scale, 0D * scale, 0D * scale) * opacity;
+        }
+
+        double f = fracture.noise(x) * fscale;
+        return generator.noise((x + f) * scale, 0D * scale, 0D * scale) * opacity;
+    }
+
+    private double getNoise(double x, double z) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, z * scale, 0D * scale) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise(x, z) - 0.5) * fscale);
+            double fz = z + ((fracture.noise(z, x) - 0.5) * fscale);
+            return generator.noise(fx * scale, fz * scale, 0D * scale) * opacity;
+        }
+
+        double f = fracture.noise(x, z) * fscale;
+        return generator.noise((x + f) * scale, (z - f) * scale, 0D * scale) * opacity;
+    }
+
+    private double getNoise(double x, double y, double z) {
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+
+        if (fracture == null || noscale) {
+            return generator.noise(x * scale, y * scale, z * scale) * opacity;
+        }
+
+        if (fracture.isTrueFracturing()) {
+            double fx = x + ((fracture.noise(x, y, z) - 0.5) * fscale);
+            double fy = y + ((fracture.noise(y, x) - 0.5) * fscale);
+            double fz = z + ((fracture.noise(z, x, y) - 0.5) * fscale);
+            return generator.noise(fx * scale, fy * scale, fz * scale) * opacity;
+        }
+
+        double f = fracture.noise(x, y, z) * fscale;
+        return generator.noise((x + f) * scale, (y - f) * scale, (z - f) * scale) * opacity;
+    }
+
     public double invertNoise(double... dim) {
         if (dim.length == 1) {
             return noise(-dim[0]);
@@ -485,9 +698,26 @@ public class CNG {
         return (noise(dim) * 2) - 1;
     }
 
+    public double noiseSym(double x) {
+        return (noise(x) * 2) - 1;
+    }
+
+    public double noiseSym(double x, double z) {
+        return (noise(x, z) * 2) - 1;
+    }
+
+    public double noiseSym(double x, double y, double z) {
+        return (noise(x, y, z) * 2) - 1;
+    }
+
     public double noise(double... dim) {
-        if (cache != null && dim.length == 2) {
-            return cache.get((int) dim[0], (int) dim[1]);
+        switch (dim.length) {
+            case 1:
+                return noise(dim[0]);
+            case 2:
+                return noise(dim[0], dim[1]);
+            case 3:
+                return noise(dim[0], dim[1], dim[2]);
         }
 
         double n = getNoise(dim);
@@ -499,14 +729,135 @@ public class CNG {
         }
 
         for (CNG i : children) {
-            double[] r = injector.combine(n, i.noise(dim));
-            n = r[0];
-            m += r[1];
+            n = injector.inject(n, i.noise(dim));
+            m += injector.getWeight();
         }
 
         return ((n / m) - down + up) * patch;
     }
 
+    public double noise(double x) {
+        double n = getNoise(x);
+        n = power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
+        }
+
+        double m = 1;
+        for (CNG i : children) {
+            n = injector.inject(n, i.noise(x));
+            m += injector.getWeight();
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    public double noise(double x, double z) {
+        if (cache != null) {
+            return cache.get((int) x, (int) z);
+        }
+
+        double n = getNoise(x, z);
+        n = power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
+        }
+
+        double m = 1;
+        for (CNG i : children) {
+            n = injector.inject(n, i.noise(x, z));
+            m += injector.getWeight();
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    public double noise(double x, double y, double z) {
+        double n = getNoise(x, y, z);
+        n = power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
+        hits += oct;
+        if (children == null) {
+            return (n - down + up) * patch;
+        }
+
+        double m = 1;
+        for (CNG i : children) {
+            n = injector.inject(n, i.noise(x, y, z));
+            m += injector.getWeight();
+        }
+
+        return ((n / m) - down + up) * patch;
+    }
+
+    /**
+     * Sample a grid of 2D noise, the same as calling {@link #noise(double, double)} for every
+     * pair of coordinates. Plain noise without a cache, children or fracture is handed to the
+     * generator in one bulk call.
+     *
+     * @param xs  the x coordinates
+     * @param zs  the z coordinates
+     * @param out the output, indexed by z * xs.length + x
+     */
+    public void noise2D(double[] xs, double[] zs, double[] out) {
+        if (cache != null || children != null || (fracture != null && !noscale)) {
+            for (int j = 0; j < zs.length; j++) {
+                for (int i = 0; i < xs.length; i++) {
+                    out[(j * xs.length) + i] = noise(xs[i], zs[j]);
+                }
+            }
+
+            return;
+        }
+
+        double scale = noscale ? 1 : this.bakedScale * this.scale;
+        double[] sx = new double[xs.length];
+        double[] sz = new double[zs.length];
+
+        for (int i = 0; i < sx.length; i++) {
+            sx[i] = xs[i] * scale;
+        }
+
+        for (int i = 0; i < sz.length; i++) {
+            sz[i] = zs[i] * scale;
+        }
+
+        generator.noise3D(sx, sz, 0D * scale, out);
+        int size = xs.length * zs.length;
+        hits += (long) oct * size;
+
+        for (int i = 0; i < size; i++) {
+            double n = out[i] * opacity;
+            n = power != 1D ? (n < 0 ? -Math.pow(Math.abs(n), power) : Math.pow(n, power)) : n;
+            out[i] = (n - down + up) * patch;
+        }
+    }
+
+    /**
+     * Sample a w by h grid of 2D noise starting at the given coordinates
+     *
+     * @param x   the start x
+     * @param z   the start z
+     * @param w   the width
+     * @param h   the height
+     * @param out the output, indexed by z * w + x
+     */
+    public void noise2D(double x, double z, int w, int h, double[] out) {
+        double[] xs = new double[w];
+        double[] zs = new double[h];
+
+        for (int i = 0; i < w; i++) {
+            xs[i] = x + i;
+        }
+
+        for (int i = 0; i < h; i++) {
+            zs[i] = z + i;
+        }
+
+        noise2D(xs, zs, out);
+    }
+
     public CNG pow(double power) {
         this.power = power;
         return this;
@@ -28,6 +28,37 @@ public interface NoiseGenerator {
 
     double noise(double x, double y, double z);
 
+    /**
+     * Sample a grid of 2D noise
+     *
+     * @param xs  the x coordinates
+     * @param zs  the z coordinates
+     * @param out the output, indexed by z * xs.length + x
+     */
+    default void noise2D(double[] xs, double[] zs, double[] out) {
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < xs.length; i++) {
+                out[(j * xs.length) + i] = noise(xs[i], zs[j]);
+            }
+        }
+    }
+
+    /**
+     * Sample a grid of 3D noise on a single plane
+     *
+     * @param xs  the x coordinates
+     * @param ys  the y coordinates
+     * @param z   the z coordinate of the plane
+     * @param out the output, indexed by y * xs.length + x
+     */
+    default void noise3D(double[] xs, double[] ys, double z, double[] out) {
+        for (int j = 0; j < ys.length; j++) {
+            for (int i = 0; i < xs.length; i++) {
+                out[(j * xs.length) + i] = noise(xs[i], ys[j], z);
+            }
+        }
+    }
+
     default boolean isStatic() {
         return false;
     }
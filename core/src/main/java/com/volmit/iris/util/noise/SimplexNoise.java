@@ -87,6 +87,40 @@ public class SimplexNoise implements NoiseGenerator, OctaveNoise {
         return f(v / m);
     }
 
+    @Override
+    public void noise2D(double[] xs, double[] zs, double[] out) {
+        if (octaves > 1) {
+            NoiseGenerator.super.noise2D(xs, zs, out);
+            return;
+        }
+
+        for (int j = 0; j < zs.length; j++) {
+            double z = zs[j];
+            int o = j * xs.length;
+
+            for (int i = 0; i < xs.length; i++) {
+                out[o + i] = f(n.GetSimplex(xs[i], z));
+            }
+        }
+    }
+
+    @Override
+    public void noise3D(double[] xs, double[] ys, double z, double[] out) {
+        if (octaves > 1) {
+            NoiseGenerator.super.noise3D(xs, ys, z, out);
+            return;
+        }
+
+        for (int j = 0; j < ys.length; j++) {
+            double y = ys[j];
+            int o = j * xs.length;
+
+            for (int i = 0; i < xs.length; i++) {
+                out[o + i] = f(n.GetSimplex(xs[i], y, z));
+            }
+        }
+    }
+
     @Override
     public void setOctaves(int o) {
         octaves = o;
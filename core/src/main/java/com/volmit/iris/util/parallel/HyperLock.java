@@ -18,7 +18,6 @@
 
 package com.volmit.iris.util.parallel;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.util.function.NastyRunnable;
@@ -26,13 +25,24 @@ import com.volmit.iris.util.io.IORunnable;
 
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 
+/**
+ * Per key locking over a fixed, power of two table of striped read/write locks. Keys are
+ * hashed onto a stripe so locks are never created, evicted or swapped out from under a
+ * holder. Two keys may share a stripe, which only costs some false contention. The plain
+ * lock methods are exclusive, the read methods allow any number of concurrent readers.
+ */
 public class HyperLock {
-    private final ConcurrentLinkedHashMap<Long, ReentrantLock> locks;
+    private final ReentrantReadWriteLock[] locks;
+    private final int bits;
+    private final LongAdder acquisitions;
+    private final LongAdder contended;
+    private final LongAdder waitNanos;
     private boolean enabled = true;
-    private boolean fair = false;
 
     public HyperLock() {
         this(1024, false);
@@ -42,87 +52,143 @@ public class HyperLock {
         this(capacity, false);
     }
 
+    /**
+     * Create a lock table
+     *
+     * @param capacity the amount of stripes (rounded up to a power of two)
+     * @param fair     if the stripes should be fair locks
+     */
     public HyperLock(int capacity, boolean fair) {
-        this.fair = fair;
-        locks = new ConcurrentLinkedHashMap.Builder<Long, ReentrantLock>()
-                .initialCapacity(capacity)
-                .maximumWeightedCapacity(capacity)
-                .listener((k, v) -> {
-                    if (v.isLocked() || v.isHeldByCurrentThread()) {
-                        Iris.warn("InfiniLock Eviction of " + k + " still has locks on it!");
-                    }
-                })
-                .concurrencyLevel(32)
-                .build();
+        int s = 1;
+        while (s < capacity) {
+            s <<= 1;
+        }
+
+        this.bits = Integer.numberOfTrailingZeros(s);
+        this.locks = new ReentrantReadWriteLock[s];
+        this.acquisitions = new LongAdder();
+        this.contended = new LongAdder();
+        this.waitNanos = new LongAdder();
+
+        for (int i = 0; i < s; i++) {
+            locks[i] = new ReentrantReadWriteLock(fair);
+        }
     }
 
     public void with(int x, int z, Runnable r) {
         lock(x, z);
-        r.run();
-        unlock(x, z);
+        try {
+            r.run();
+        } finally {
+            unlock(x, z);
+        }
     }
 
     public void withLong(long k, Runnable r) {
-        lock(Cache.keyX(k), Cache.keyZ(k));
-        r.run();
-        unlock(Cache.keyX(k), Cache.keyZ(k));
+        with(Cache.keyX(k), Cache.keyZ(k), r);
     }
 
     public void withNasty(int x, int z, NastyRunnable r) throws Throwable {
         lock(x, z);
-        Throwable ee = null;
         try {
             r.run();
-        } catch (Throwable e) {
-            ee = e;
         } finally {
             unlock(x, z);
-
-            if (ee != null) {
-                throw ee;
-            }
         }
     }
 
     public void withIO(int x, int z, IORunnable r) throws IOException {
         lock(x, z);
-        IOException ee = null;
         try {
             r.run();
-        } catch (IOException e) {
-            ee = e;
         } finally {
             unlock(x, z);
-
-            if (ee != null) {
-                throw ee;
-            }
         }
     }
 
     public <T> T withResult(int x, int z, Supplier<T> r) {
         lock(x, z);
-        T t = r.get();
-        unlock(x, z);
-        return t;
+        try {
+            return r.get();
+        } finally {
+            unlock(x, z);
+        }
+    }
+
+    public void withRead(int x, int z, Runnable r) {
+        lockRead(x, z);
+        try {
+            r.run();
+        } finally {
+            unlockRead(x, z);
+        }
+    }
+
+    public <T> T withReadResult(int x, int z, Supplier<T> r) {
+        lockRead(x, z);
+        try {
+            return r.get();
+        } finally {
+            unlockRead(x, z);
+        }
     }
 
     public boolean tryLock(int x, int z) {
-        return getLock(x, z).tryLock();
+        if (!enabled) {
+            return true;
+        }
+
+        return count(getLock(x, z).writeLock().tryLock());
     }
 
     public boolean tryLock(int x, int z, long timeout) {
+        if (!enabled) {
+            return true;
+        }
+
+        Lock lock = getLock(x, z).writeLock();
+
+        if (lock.tryLock()) {
+            return count(true);
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+
         try {
-            return getLock(x, z).tryLock(timeout, TimeUnit.MILLISECONDS);
+            return count(lock.tryLock(timeout, TimeUnit.MILLISECONDS));
         } catch (InterruptedException e) {
             Iris.reportError(e);
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
         }
 
         return false;
     }
 
-    private ReentrantLock getLock(int x, int z) {
-        return locks.computeIfAbsent(Cache.key(x, z), k -> new ReentrantLock(fair));
+    private boolean count(boolean acquired) {
+        if (acquired) {
+            acquisitions.increment();
+        }
+
+        return acquired;
+    }
+
+    private ReentrantReadWriteLock getLock(int x, int z) {
+        return locks[(int) ((Cache.key(x, z) * 0x9E3779B97F4A7C15L) >>> (64 - bits)) & (locks.length - 1)];
+    }
+
+    private void acquire(Lock lock) {
+        acquisitions.increment();
+
+        if (lock.tryLock()) {
+            return;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.add(System.nanoTime() - start);
     }
 
     public void lock(int x, int z) {
@@ -130,7 +196,7 @@ public class HyperLock {
             return;
         }
 
-        getLock(x, z).lock();
+        acquire(getLock(x, z).writeLock());
     }
 
     public void unlock(int x, int z) {
@@ -138,10 +204,55 @@ public class HyperLock {
             return;
         }
 
-        getLock(x, z).unlock();
+        getLock(x, z).writeLock().unlock();
+    }
+
+    public void lockRead(int x, int z) {
+        if (!enabled) {
+            return;
+        }
+
+        acquire(getLock(x, z).readLock());
+    }
+
+    public void unlockRead(int x, int z) {
+        if (!enabled) {
+            return;
+        }
+
+        getLock(x, z).readLock().unlock();
     }
 
     public void disable() {
         enabled = false;
     }
+
+    /**
+     * @return the amount of times a lock was acquired
+     */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return the amount of acquisitions which had to wait for another holder
+     */
+    public long getContended() {
+        return contended.sum();
+    }
+
+    /**
+     * @return the total time spent waiting on contended locks in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * @return the fraction of acquisitions which had to wait
+     */
+    public double getContentionRate() {
+        long a = getAcquisitions();
+        return a == 0 ? 0 : (double) getContended() / a;
+    }
 }
@@ -34,6 +34,7 @@ public class MultiBurst {
     private final AtomicLong last;
     private final String name;
     private final int priority;
+    private final int threads;
     private ExecutorService service;
 
     public MultiBurst() {
@@ -41,8 +42,20 @@ public class MultiBurst {
     }
 
     public MultiBurst(String name, int priority) {
+        this(name, priority, 0);
+    }
+
+    /**
+     * Create a burster with its own pool
+     *
+     * @param name     the thread name prefix
+     * @param priority the thread priority
+     * @param threads  the amount of threads or 0 to use the configured parallelism
+     */
+    public MultiBurst(String name, int priority, int threads) {
         this.name = name;
         this.priority = priority;
+        this.threads = threads;
         last = new AtomicLong(M.ms());
         Iris.service(PreservationSVC.class).register(this);
     }
@@ -50,7 +63,7 @@ public class MultiBurst {
     private synchronized ExecutorService getService() {
         last.set(M.ms());
         if (service == null || service.isShutdown()) {
-            service = new ForkJoinPool(IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()),
+            service = new ForkJoinPool(threads > 0 ? threads : IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()),
                     new ForkJoinPool.ForkJoinWorkerThreadFactory() {
                         int m = 0;
 
@@ -29,6 +29,8 @@ import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.function.Function2;
 import com.volmit.iris.util.function.Function3;
 import com.volmit.iris.util.function.Function4;
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.function.NoiseProvider3;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.parallel.BurstExecutor;
@@ -36,6 +38,7 @@ import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.stream.arithmetic.*;
 import com.volmit.iris.util.stream.convert.*;
 import com.volmit.iris.util.stream.interpolation.Interpolated;
+import com.volmit.iris.util.stream.sources.DoubleFunctionStream;
 import com.volmit.iris.util.stream.sources.FunctionStream;
 import com.volmit.iris.util.stream.utility.*;
 
@@ -60,6 +63,18 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return of(f, Interpolated.DOUBLE);
     }
 
+    static ProceduralStream<Double> ofNoise(NoiseProvider f) {
+        return ofNoise(f, (x, y, z) -> f.noise(x, z));
+    }
+
+    static ProceduralStream<Double> ofNoise(NoiseProvider3 f) {
+        return ofNoise((x, z) -> f.noise(x, 0D, z), f);
+    }
+
+    static ProceduralStream<Double> ofNoise(NoiseProvider f, NoiseProvider3 f3) {
+        return new DoubleFunctionStream(f, f3);
+    }
+
     static <T> ProceduralStream<T> of(Function2<Double, Double, T> f, Interpolated<T> helper) {
         return of(f, (x, y, z) -> f.apply(x, z), helper);
     }
@@ -105,6 +120,10 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return new AddingStream<>(this, a);
     }
 
+    default ProceduralStream<T> addNoise(NoiseProvider a) {
+        return new AddingStream<>(this, a);
+    }
+
     default ProceduralStream<T> contextInjecting(Function3<ChunkContext, Integer, Integer, T> contextAccessor) {
         //return this;
         return new ContextInjectingStream<>(this, contextAccessor);
@@ -279,6 +298,14 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return new CachedStream2D<T>(name, engine, this, size);
     }
 
+    default CachedDoubleStream2D cacheDouble2D(String name, Engine engine, int size) {
+        return new CachedDoubleStream2D(name, engine, this, size);
+    }
+
+    default CachedIntStream2D cacheInt2D(String name, Engine engine, int size) {
+        return new CachedIntStream2D(name, engine, this, size);
+    }
+
     default ProceduralStream<T> cache3D(String name, Engine engine, int maxSize) {
         return new CachedStream3D<T>(name, engine, this, maxSize);
     }
@@ -574,6 +601,76 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         }
     }
 
+    /**
+     * Sample a w by h plane starting at x, z into out. The value for (x + i, z + j)
+     * is written to out[(j * w) + i]. Streams override this to evaluate whole planes
+     * at once, the default falls back to point sampling.
+     *
+     * @param x   the start x
+     * @param z   the start z
+     * @param w   the width of the plane (along x)
+     * @param h   the height of the plane (along z)
+     * @param out the output array (at least w * h long)
+     */
+    default void fill2D(double x, double z, int w, int h, double[] out) {
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] = getDouble(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Sample a w by h plane starting at x, z into out. The value for (x + i, z + j)
+     * is written to out[(j * w) + i]. Streams override this to evaluate whole planes
+     * at once, the default falls back to point sampling.
+     * Callers may hand in a plain Object[], so only streams with a generic element
+     * type override this overload (a Double[] override would fail the bridge cast).
+     *
+     * @param x   the start x
+     * @param z   the start z
+     * @param w   the width of the plane (along x)
+     * @param h   the height of the plane (along z)
+     * @param out the output array (at least w * h long)
+     */
+    default void fill2D(double x, double z, int w, int h, T[] out) {
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] = get(x + i, z + j);
+            }
+        }
+    }
+
+    /**
+     * Fill a typed plane by filling a numeric plane and converting it with {@link #fromDouble(double)}.
+     * Used by streams that compute their values as doubles.
+     */
+    default void fill2DFromDouble(double x, double z, int w, int h, T[] out) {
+        double[] d = new double[w * h];
+        fill2D(x, z, w, h, d);
+
+        for (int i = 0; i < d.length; i++) {
+            out[i] = fromDouble(d[i]);
+        }
+    }
+
+    /**
+     * Fill a numeric plane by filling a typed plane and converting it with {@link #toDouble(Object)}.
+     * Used by streams that compute their values as objects.
+     */
+    default void fill2DToDouble(double x, double z, int w, int h, double[] out) {
+        T[] t = (T[]) new Object[w * h];
+        fill2D(x, z, w, h, t);
+
+        for (int i = 0; i < t.length; i++) {
+            out[i] = toDouble(t[i]);
+        }
+    }
+
     T get(double x, double z);
 
     T get(double x, double y, double z);
@@ -45,14 +45,38 @@ public class ClampedStream<T> extends BasicStream<T> implements ProceduralStream
         return Math.max(Math.min(v, max), min);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        getTypedSource().fill2D(x, z, w, h, out);
+
+        for (int i = 0; i < w * h; i++) {
+            out[i] = clamp(out[i]);
+        }
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        fill2DFromDouble(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
-        return fromDouble(clamp(getTypedSource().getDouble(x, z)));
+        return fromDouble(getDouble(x, z));
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return clamp(getTypedSource().getDouble(x, z));
     }
 
     @Override
     public T get(double x, double y, double z) {
-        return fromDouble(clamp(getTypedSource().getDouble(x, y, z)));
+        return fromDouble(getDouble(x, y, z));
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return clamp(getTypedSource().getDouble(x, y, z));
     }
 
 }
@@ -20,23 +20,33 @@ package com.volmit.iris.util.stream.arithmetic;
 
 import com.volmit.iris.util.function.Function2;
 import com.volmit.iris.util.function.Function3;
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.function.NoiseProvider3;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
 public class DividingStream<T> extends BasicStream<T> implements ProceduralStream<T> {
-    private final Function3<Double, Double, Double, Double> add;
+    private final NoiseProvider3 add;
 
-    public DividingStream(ProceduralStream<T> stream, Function3<Double, Double, Double, Double> add) {
+    public DividingStream(ProceduralStream<T> stream, NoiseProvider3 add) {
         super(stream);
         this.add = add;
     }
 
+    public DividingStream(ProceduralStream<T> stream, Function3<Double, Double, Double, Double> add) {
+        this(stream, (NoiseProvider3) add::apply);
+    }
+
+    public DividingStream(ProceduralStream<T> stream, NoiseProvider add) {
+        this(stream, (NoiseProvider3) (x, y, z) -> add.noise(x, z));
+    }
+
     public DividingStream(ProceduralStream<T> stream, Function2<Double, Double, Double> add) {
-        this(stream, (x, y, z) -> add.apply(x, z));
+        this(stream, (NoiseProvider3) (x, y, z) -> add.apply(x, z));
     }
 
     public DividingStream(ProceduralStream<T> stream, double add) {
-        this(stream, (x, y, z) -> add);
+        this(stream, (NoiseProvider3) (x, y, z) -> add);
     }
 
     @Override
@@ -49,13 +59,40 @@ public class DividingStream<T> extends BasicStream<T> implements ProceduralStrea
         return getTypedSource().fromDouble(d);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        getTypedSource().fill2D(x, z, w, h, out);
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] /= add.noise(x + i, 0D, z + j);
+            }
+        }
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        fill2DFromDouble(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
-        return fromDouble(getTypedSource().getDouble(x, z) / add.apply(x, 0D, z));
+        return fromDouble(getDouble(x, z));
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x, z) / add.noise(x, 0D, z);
     }
 
     @Override
     public T get(double x, double y, double z) {
-        return fromDouble(getTypedSource().getDouble(x, y, z) / add.apply(x, y, z));
+        return fromDouble(getDouble(x, y, z));
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x, y, z) / add.noise(x, y, z);
     }
 }
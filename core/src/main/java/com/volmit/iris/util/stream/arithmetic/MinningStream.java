@@ -20,23 +20,33 @@ package com.volmit.iris.util.stream.arithmetic;
 
 import com.volmit.iris.util.function.Function2;
 import com.volmit.iris.util.function.Function3;
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.function.NoiseProvider3;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
 public class MinningStream<T> extends BasicStream<T> {
-    private final Function3<Double, Double, Double, Double> add;
+    private final NoiseProvider3 add;
 
-    public MinningStream(ProceduralStream<T> stream, Function3<Double, Double, Double, Double> add) {
+    public MinningStream(ProceduralStream<T> stream, NoiseProvider3 add) {
         super(stream);
         this.add = add;
     }
 
+    public MinningStream(ProceduralStream<T> stream, Function3<Double, Double, Double, Double> add) {
+        this(stream, (NoiseProvider3) add::apply);
+    }
+
+    public MinningStream(ProceduralStream<T> stream, NoiseProvider add) {
+        this(stream, (NoiseProvider3) (x, y, z) -> add.noise(x, z));
+    }
+
     public MinningStream(ProceduralStream<T> stream, Function2<Double, Double, Double> add) {
-        this(stream, (x, y, z) -> add.apply(x, z));
+        this(stream, (NoiseProvider3) (x, y, z) -> add.apply(x, z));
     }
 
     public MinningStream(ProceduralStream<T> stream, double add) {
-        this(stream, (x, y, z) -> add);
+        this(stream, (NoiseProvider3) (x, y, z) -> add);
     }
 
     @Override
@@ -49,14 +59,41 @@ public class MinningStream<T> extends BasicStream<T> {
         return getTypedSource().fromDouble(d);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        getTypedSource().fill2D(x, z, w, h, out);
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] = Math.min(add.noise(x + i, 0D, z + j), out[(j * w) + i]);
+            }
+        }
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        fill2DFromDouble(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
-        return fromDouble(Math.min(add.apply(x, 0D, z), getTypedSource().getDouble(x, z)));
+        return fromDouble(getDouble(x, z));
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return Math.min(add.noise(x, 0D, z), getTypedSource().getDouble(x, z));
     }
 
     @Override
     public T get(double x, double y, double z) {
-        return fromDouble(Math.min(add.apply(x, y, z), getTypedSource().getDouble(x, y, z)));
+        return fromDouble(getDouble(x, y, z));
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return Math.min(add.noise(x, y, z), getTypedSource().getDouble(x, y, z));
     }
 
 }
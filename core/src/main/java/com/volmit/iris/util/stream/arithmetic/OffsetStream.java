@@ -43,14 +43,34 @@ public class OffsetStream<T> extends BasicStream<T> implements ProceduralStream<
         return getTypedSource().fromDouble(d);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        getTypedSource().fill2D(x + ox, z + oz, w, h, out);
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        getTypedSource().fill2D(x + ox, z + oz, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
         return getTypedSource().get(x + ox, z + oz);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x + ox, z + oz);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().get(x + ox, y + oy, z + oz);
     }
 
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x + ox, y + oy, z + oz);
+    }
+
 }
@@ -43,14 +43,33 @@ public class RoundingDoubleStream extends BasicStream<Double> {
         return Math.round(v);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        stream.fill2D(x, z, w, h, out);
+
+        for (int i = 0; i < w * h; i++) {
+            out[i] = round(out[i]);
+        }
+    }
+
     @Override
     public Double get(double x, double z) {
         return round(stream.getDouble(x, z));
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return round(stream.getDouble(x, z));
+    }
+
     @Override
     public Double get(double x, double y, double z) {
         return round(stream.getDouble(x, y, z));
     }
 
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return round(stream.getDouble(x, y, z));
+    }
+
 }
@@ -39,23 +39,58 @@ public class SlopeStream<T> extends BasicStream<T> {
         return getTypedSource().fromDouble(d);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        int r = Math.abs(range);
+        int s = range < 0 ? r : 0;
+        int pw = w + r;
+        double[] plane = new double[pw * (h + r)];
+        getTypedSource().fill2D(x - s, z - s, pw, h + r, plane);
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                int at = ((j + s) * pw) + i + s;
+                double height = plane[at];
+                double dx = plane[at + range] - height;
+                double dy = plane[at + (range * pw)] - height;
+                out[(j * w) + i] = Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        fill2DFromDouble(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
+        return fromDouble(getDouble(x, z));
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
         double height = getTypedSource().getDouble(x, z);
         double dx = getTypedSource().getDouble(x + range, z) - height;
         double dy = getTypedSource().getDouble(x, z + range) - height;
 
-        return fromDouble(Math.sqrt(dx * dx + dy * dy));
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     @Override
     public T get(double x, double y, double z) {
+        return fromDouble(getDouble(x, y, z));
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
         double height = getTypedSource().getDouble(x, y, z);
         double dx = getTypedSource().getDouble(x + range, y, z) - height;
         double dy = getTypedSource().getDouble(x, y + range, z) - height;
         double dz = getTypedSource().getDouble(x, y, z + range) - height;
 
-        return fromDouble(Math.cbrt((dx * dx) + (dy * dy) + (dz * dz)));
+        return Math.cbrt((dx * dx) + (dy * dy) + (dz * dz));
     }
 
 }
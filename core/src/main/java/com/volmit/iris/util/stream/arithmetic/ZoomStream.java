@@ -48,9 +48,19 @@ public class ZoomStream<T> extends BasicStream<T> {
         return getTypedSource().get(x / ox, z / oz);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x / ox, z / oz);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().get(x / ox, y / oy, z / oz);
     }
 
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x / ox, y / oy, z / oz);
+    }
+
 }
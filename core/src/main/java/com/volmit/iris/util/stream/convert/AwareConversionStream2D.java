@@ -51,6 +51,20 @@ public class AwareConversionStream2D<T, V> extends BasicStream<V> {
         return stream;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public void fill2D(double x, double z, int w, int h, V[] out) {
+        T[] in = (T[]) new Object[w * h];
+        stream.fill2D(x, z, w, h, in);
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] = converter.apply(in[(j * w) + i], x + i, z + j);
+            }
+        }
+    }
+
     @Override
     public V get(double x, double z) {
         return converter.apply(stream.get(x, z), x, z);
@@ -56,6 +56,17 @@ public class CachedConversionStream<T, V> extends BasicLayer implements Procedur
         return stream;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public void fill2D(double x, double z, int w, int h, V[] out) {
+        T[] in = (T[]) new Object[w * h];
+        stream.fill2D(x, z, w, h, in);
+
+        for (int i = 0; i < in.length; i++) {
+            out[i] = cache.computeIfAbsent(in[i], converter);
+        }
+    }
+
     @Override
     public V get(double x, double z) {
         return cache.computeIfAbsent(stream.get(x, z), converter);
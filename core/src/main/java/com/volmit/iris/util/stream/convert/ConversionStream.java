@@ -57,6 +57,17 @@ public class ConversionStream<T, V> extends BasicLayer implements ProceduralStre
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public void fill2D(double x, double z, int w, int h, V[] out) {
+        T[] in = (T[]) new Object[w * h];
+        stream.fill2D(x, z, w, h, in);
+
+        for (int i = 0; i < in.length; i++) {
+            out[i] = converter.apply(in[i]);
+        }
+    }
+
     @Override
     public V get(double x, double z) {
         return converter.apply(stream.get(x, z));
@@ -39,14 +39,29 @@ public class ForceDoubleStream extends BasicStream<Double> {
         return d;
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        stream.fill2D(x, z, w, h, out);
+    }
+
     @Override
     public Double get(double x, double z) {
         return stream.getDouble(x, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return stream.getDouble(x, z);
+    }
+
     @Override
     public Double get(double x, double y, double z) {
         return stream.getDouble(x, y, z);
     }
 
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return stream.getDouble(x, y, z);
+    }
+
 }
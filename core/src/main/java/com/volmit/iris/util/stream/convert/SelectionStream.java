@@ -21,6 +21,7 @@ package com.volmit.iris.util.stream.convert;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class SelectionStream<T> extends BasicStream<T> {
@@ -48,6 +49,21 @@ public class SelectionStream<T> extends BasicStream<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        if (options.length == 0) {
+            Arrays.fill(out, 0, w * h, null);
+            return;
+        }
+
+        double[] in = new double[w * h];
+        stream.fill2D(x, z, w, h, in);
+
+        for (int i = 0; i < in.length; i++) {
+            out[i] = options[(int) in[i]];
+        }
+    }
+
     @Override
     public T get(double x, double z) {
         if (options.length == 0) {
@@ -36,11 +36,26 @@ public class To3DStream<T> extends BasicStream<T> {
         return getTypedSource().fromDouble(d);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        getTypedSource().fill2D(x, z, w, h, out);
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        getTypedSource().fill2D(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double z) {
         return getTypedSource().get(x, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().fromDouble(getTypedSource().getDouble(x, z) >= y ? 1D : 0D);
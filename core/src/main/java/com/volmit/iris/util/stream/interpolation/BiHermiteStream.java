@@ -41,6 +41,10 @@ public class BiHermiteStream<T> extends BasicStream<T> implements Interpolator<T
     }
 
     public T interpolate(double x, double y) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y));
+    }
+
+    public double interpolateDouble(double x, double y) {
         int fx = (int) Math.floor(x / rx);
         int fz = (int) Math.floor(y / ry);
         int x0 = Math.round((fx - 1) * rx);
@@ -55,7 +59,7 @@ public class BiHermiteStream<T> extends BasicStream<T> implements Interpolator<T
         double pz = IrisInterpolation.rangeScale(0, 1, z1, z2, y);
 
         //@builder
-        return getTypedSource().fromDouble(IrisInterpolation.bihermite(
+        return IrisInterpolation.bihermite(
                 getTypedSource().getDouble(x0, z0),
                 getTypedSource().getDouble(x0, z1),
                 getTypedSource().getDouble(x0, z2),
@@ -72,10 +76,54 @@ public class BiHermiteStream<T> extends BasicStream<T> implements Interpolator<T
                 getTypedSource().getDouble(x3, z1),
                 getTypedSource().getDouble(x3, z2),
                 getTypedSource().getDouble(x3, z3),
-                px, pz, tension, bias));
+                px, pz, tension, bias);
         //@done
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        InterpolationLattice l = new InterpolationLattice(getTypedSource(), x, z, w, h, rx, ry, 1);
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            double zz = z + j;
+            int fz = (int) Math.floor(zz / ry);
+            double pz = IrisInterpolation.rangeScale(0, 1, Math.round(fz * ry), Math.round((fz + 1) * ry), zz);
+
+            for (i = 0; i < w; i++) {
+                double xx = x + i;
+                int fx = (int) Math.floor(xx / rx);
+                double px = IrisInterpolation.rangeScale(0, 1, Math.round(fx * rx), Math.round((fx + 1) * rx), xx);
+
+                //@builder
+                out[(j * w) + i] = IrisInterpolation.bihermite(
+                        l.get(fx - 1, fz - 1),
+                        l.get(fx - 1, fz),
+                        l.get(fx - 1, fz + 1),
+                        l.get(fx - 1, fz + 2),
+                        l.get(fx, fz - 1),
+                        l.get(fx, fz),
+                        l.get(fx, fz + 1),
+                        l.get(fx, fz + 2),
+                        l.get(fx + 1, fz - 1),
+                        l.get(fx + 1, fz),
+                        l.get(fx + 1, fz + 1),
+                        l.get(fx + 1, fz + 2),
+                        l.get(fx + 2, fz - 1),
+                        l.get(fx + 2, fz),
+                        l.get(fx + 2, fz + 1),
+                        l.get(fx + 2, fz + 2),
+                        px, pz, tension, bias);
+                //@done
+            }
+        }
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        fill2DFromDouble(x, z, w, h, out);
+    }
+
     @Override
     public double toDouble(T t) {
         return getTypedSource().toDouble(t);
@@ -91,8 +139,18 @@ public class BiHermiteStream<T> extends BasicStream<T> implements Interpolator<T
         return interpolate(x, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, z);
+    }
 }
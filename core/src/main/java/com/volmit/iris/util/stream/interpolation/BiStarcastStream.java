@@ -32,6 +32,10 @@ public class BiStarcastStream<T> extends BasicStream<T> implements Interpolator<
     }
 
     public T interpolate(double x, double y) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y));
+    }
+
+    public double interpolateDouble(double x, double y) {
         double m = (360D / checks);
         double v = 0;
 
@@ -43,7 +47,7 @@ public class BiStarcastStream<T> extends BasicStream<T> implements Interpolator<
             v += getTypedSource().getDouble(cx, cz);
         }
 
-        return getTypedSource().fromDouble(v / checks);
+        return v / checks;
     }
 
     @Override
@@ -61,8 +65,18 @@ public class BiStarcastStream<T> extends BasicStream<T> implements Interpolator<
         return interpolate(x, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, z);
+    }
 }
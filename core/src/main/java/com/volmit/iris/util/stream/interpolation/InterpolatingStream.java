@@ -37,7 +37,11 @@ public class InterpolatingStream<T> extends BasicStream<T> implements Interpolat
     }
 
     public T interpolate(double x, double y) {
-        return fromDouble(IrisInterpolation.getNoise(type, (int) x, (int) y, rx, np));
+        return getTypedSource().fromDouble(interpolateDouble(x, y));
+    }
+
+    public double interpolateDouble(double x, double y) {
+        return IrisInterpolation.getNoise(type, (int) x, (int) y, rx, np);
     }
 
     @Override
@@ -55,8 +59,18 @@ public class InterpolatingStream<T> extends BasicStream<T> implements Interpolat
         return interpolate(x, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, z);
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.stream.interpolation;
+
+import com.volmit.iris.util.stream.ProceduralStream;
+
+/**
+ * The grid points a grid interpolator needs for a whole plane, sampled once each.
+ * Neighbouring cells share their corners so a 16x16 fill with a radius of 4 samples
+ * 25 points (bilinear) instead of 1024.
+ */
+final class InterpolationLattice {
+    private final int fx;
+    private final int fz;
+    private final int width;
+    private final double[] values;
+
+    /**
+     * @param source the stream to sample
+     * @param x      the plane start x
+     * @param z      the plane start z
+     * @param w      the plane width
+     * @param h      the plane height
+     * @param rx     the grid size on x
+     * @param rz     the grid size on z
+     * @param pad    extra grid points needed around each cell (0 for linear, 1 for cubic)
+     */
+    InterpolationLattice(ProceduralStream<?> source, double x, double z, int w, int h, int rx, int rz, int pad) {
+        fx = (int) Math.floor(x / rx) - pad;
+        fz = (int) Math.floor(z / rz) - pad;
+        width = (int) Math.floor((x + w - 1) / rx) + 1 + pad - fx + 1;
+        int height = (int) Math.floor((z + h - 1) / rz) + 1 + pad - fz + 1;
+        values = new double[width * height];
+        int i, j;
+
+        for (j = 0; j < height; j++) {
+            for (i = 0; i < width; i++) {
+                values[(j * width) + i] = source.getDouble(Math.round((fx + i) * rx), Math.round((fz + j) * rz));
+            }
+        }
+    }
+
+    /**
+     * Get the sampled value of a grid point
+     *
+     * @param x the grid x (block x / rx)
+     * @param z the grid z (block z / rz)
+     * @return the value of the source at that grid point
+     */
+    double get(int x, int z) {
+        return values[((z - fz) * width) + (x - fx)];
+    }
+}
@@ -39,6 +39,10 @@ public class TriHermiteStream<T> extends BasicStream<T> implements Interpolator<
     }
 
     public T interpolate(double x, double y, double z) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y, z));
+    }
+
+    public double interpolateDouble(double x, double y, double z) {
         int fx = (int) Math.floor(x / rx);
         int fy = (int) Math.floor(y / ry);
         int fz = (int) Math.floor(z / rz);
@@ -59,7 +63,7 @@ public class TriHermiteStream<T> extends BasicStream<T> implements Interpolator<
         double pz = IrisInterpolation.rangeScale(0, 1, z1, z2, z);
 
         //@builder
-        return getTypedSource().fromDouble(IrisInterpolation.trihermite(
+        return IrisInterpolation.trihermite(
                 getTypedSource().getDouble(x0, y0, z0),
                 getTypedSource().getDouble(x0, y0, z1),
                 getTypedSource().getDouble(x0, y0, z2),
@@ -124,7 +128,7 @@ public class TriHermiteStream<T> extends BasicStream<T> implements Interpolator<
                 getTypedSource().getDouble(x3, y3, z1),
                 getTypedSource().getDouble(x3, y3, z2),
                 getTypedSource().getDouble(x3, y3, z3),
-                px, pz, py, tension, bias));
+                px, pz, py, tension, bias);
         //@done
     }
 
@@ -143,8 +147,18 @@ public class TriHermiteStream<T> extends BasicStream<T> implements Interpolator<
         return interpolate(x, 0, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, 0, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, y, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, y, z);
+    }
 }
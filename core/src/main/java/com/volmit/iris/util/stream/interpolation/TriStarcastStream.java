@@ -32,6 +32,10 @@ public class TriStarcastStream<T> extends BasicStream<T> implements Interpolator
     }
 
     public T interpolate(double x, double y, double z) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y, z));
+    }
+
+    public double interpolateDouble(double x, double y, double z) {
         double m = (360D / checks);
         double v = 0;
 
@@ -44,7 +48,7 @@ public class TriStarcastStream<T> extends BasicStream<T> implements Interpolator
             v += getTypedSource().getDouble(cx, cy, cz);
         }
 
-        return getTypedSource().fromDouble(v / checks);
+        return v / checks;
     }
 
     @Override
@@ -62,8 +66,18 @@ public class TriStarcastStream<T> extends BasicStream<T> implements Interpolator
         return interpolate(x, 0, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, 0, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, y, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, y, z);
+    }
 }
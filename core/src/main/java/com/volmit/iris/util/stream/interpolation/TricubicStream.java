@@ -35,6 +35,10 @@ public class TricubicStream<T> extends BasicStream<T> implements Interpolator<T>
     }
 
     public T interpolate(double x, double y, double z) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y, z));
+    }
+
+    public double interpolateDouble(double x, double y, double z) {
         int fx = (int) Math.floor(x / rx);
         int fy = (int) Math.floor(y / ry);
         int fz = (int) Math.floor(z / rz);
@@ -55,7 +59,7 @@ public class TricubicStream<T> extends BasicStream<T> implements Interpolator<T>
         double pz = IrisInterpolation.rangeScale(0, 1, z1, z2, z);
 
         //@builder
-        return getTypedSource().fromDouble(IrisInterpolation.tricubic(
+        return IrisInterpolation.tricubic(
                 getTypedSource().getDouble(x0, y0, z0),
                 getTypedSource().getDouble(x0, y0, z1),
                 getTypedSource().getDouble(x0, y0, z2),
@@ -123,7 +127,7 @@ public class TricubicStream<T> extends BasicStream<T> implements Interpolator<T>
                 getTypedSource().getDouble(x3, y3, z1),
                 getTypedSource().getDouble(x3, y3, z2),
                 getTypedSource().getDouble(x3, y3, z3),
-                px, pz, py));
+                px, pz, py);
         //@done
     }
 
@@ -142,8 +146,18 @@ public class TricubicStream<T> extends BasicStream<T> implements Interpolator<T>
         return interpolate(x, 0, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, 0, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, y, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, y, z);
+    }
 }
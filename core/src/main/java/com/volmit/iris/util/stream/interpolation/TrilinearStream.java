@@ -35,6 +35,10 @@ public class TrilinearStream<T> extends BasicStream<T> implements Interpolator<T
     }
 
     public T interpolate(double x, double y, double z) {
+        return getTypedSource().fromDouble(interpolateDouble(x, y, z));
+    }
+
+    public double interpolateDouble(double x, double y, double z) {
         int fx = (int) Math.floor(x / rx);
         int fy = (int) Math.floor(y / ry);
         int fz = (int) Math.floor(z / rz);
@@ -49,7 +53,7 @@ public class TrilinearStream<T> extends BasicStream<T> implements Interpolator<T
         double pz = IrisInterpolation.rangeScale(0, 1, z1, z2, z);
 
         //@builder
-        return getTypedSource().fromDouble(IrisInterpolation.trilerp(
+        return IrisInterpolation.trilerp(
                 getTypedSource().getDouble(x1, y1, z1),
                 getTypedSource().getDouble(x2, y1, z1),
                 getTypedSource().getDouble(x1, y1, z2),
@@ -58,7 +62,7 @@ public class TrilinearStream<T> extends BasicStream<T> implements Interpolator<T
                 getTypedSource().getDouble(x2, y2, z1),
                 getTypedSource().getDouble(x1, y2, z2),
                 getTypedSource().getDouble(x2, y2, z2),
-                px, pz, py));
+                px, pz, py);
         //@done
     }
 
@@ -77,8 +81,18 @@ public class TrilinearStream<T> extends BasicStream<T> implements Interpolator<T
         return interpolate(x, 0, z);
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return interpolateDouble(x, 0, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return interpolate(x, y, z);
     }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return interpolateDouble(x, y, z);
+    }
 }
@@ -59,14 +59,43 @@ public class CNGStream extends BasicLayer implements ProceduralStream<Double> {
         return null;
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        double zoom = getZoom();
+        double ox = getOffsetX();
+        double oz = getOffsetZ();
+        double[] xs = new double[w];
+        double[] zs = new double[h];
+
+        for (int i = 0; i < w; i++) {
+            xs[i] = (x + i + ox) / zoom;
+        }
+
+        for (int j = 0; j < h; j++) {
+            zs[j] = (z + j + oz) / zoom;
+        }
+
+        cng.noise2D(xs, zs, out);
+    }
+
     @Override
     public Double get(double x, double z) {
         return cng.noise((x + getOffsetX()) / getZoom(), (z + getOffsetZ()) / getZoom());
     }
 
+    @Override
+    public double getDouble(double x, double z) {
+        return cng.noise((x + getOffsetX()) / getZoom(), (z + getOffsetZ()) / getZoom());
+    }
+
     @Override
     public Double get(double x, double y, double z) {
         return cng.noise((x + getOffsetX()) / getZoom(), (y + getOffsetY()) / getZoom(), (z + getOffsetZ()) * getZoom());
     }
 
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return cng.noise((x + getOffsetX()) / getZoom(), (y + getOffsetY()) / getZoom(), (z + getOffsetZ()) * getZoom());
+    }
+
 }
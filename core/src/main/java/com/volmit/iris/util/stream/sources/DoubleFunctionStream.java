@@ -0,0 +1,79 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.volmit.iris.util.stream.sources;
+
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.function.NoiseProvider3;
+import com.volmit.iris.util.stream.BasicStream;
+
+/**
+ * A function stream over primitive doubles. Sampling through getDouble never boxes.
+ */
+public class DoubleFunctionStream extends BasicStream<Double> {
+    private final NoiseProvider f2;
+    private final NoiseProvider3 f3;
+
+    public DoubleFunctionStream(NoiseProvider f2, NoiseProvider3 f3) {
+        super();
+        this.f2 = f2;
+        this.f3 = f3;
+    }
+
+    @Override
+    public double toDouble(Double t) {
+        return t;
+    }
+
+    @Override
+    public Double fromDouble(double d) {
+        return d;
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                out[(j * w) + i] = f2.noise(x + i, z + j);
+            }
+        }
+    }
+
+    @Override
+    public Double get(double x, double z) {
+        return f2.noise(x, z);
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return f2.noise(x, z);
+    }
+
+    @Override
+    public Double get(double x, double y, double z) {
+        return f3.noise(x, y, z);
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return f3.noise(x, y, z);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.utility;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.util.cache.IntWorldCache2D;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.stream.BasicStream;
+import com.volmit.iris.util.stream.ProceduralStream;
+
+/**
+ * A 2D cache over an integer stream which stores unboxed ints. Reading through
+ * {@link #getInt(double, double)} or {@link #getDouble(double, double)} never allocates.
+ */
+public class CachedIntStream2D extends BasicStream<Integer> implements ProceduralStream<Integer>, MeteredCache {
+    private final ProceduralStream<?> stream;
+    private final IntWorldCache2D cache;
+    private final Engine engine;
+
+    public CachedIntStream2D(String name, Engine engine, ProceduralStream<?> stream, int size) {
+        super();
+        this.stream = stream;
+        this.engine = engine;
+        cache = new IntWorldCache2D((x, z) -> (int) stream.getDouble(x, z), size);
+        Iris.service(PreservationSVC.class).registerCache(this);
+    }
+
+    @Override
+    public double toDouble(Integer t) {
+        return t;
+    }
+
+    @Override
+    public Integer fromDouble(double d) {
+        return (int) Math.round(d);
+    }
+
+    @Override
+    public Integer get(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        if (x != (int) x || z != (int) z) {
+            ProceduralStream.super.fill2D(x, z, w, h, out);
+            return;
+        }
+
+        int[] v = new int[w * h];
+        cache.fill((int) x, (int) z, w, h, v);
+
+        for (int i = 0; i < v.length; i++) {
+            out[i] = v[i];
+        }
+    }
+
+    @Override
+    public Integer get(double x, double y, double z) {
+        return (int) stream.getDouble(x, y, z);
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    public int getInt(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    @Override
+    public long getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return null;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return engine.isClosed();
+    }
+
+    @Override
+    public long getHitCount() {
+        return cache.getHits();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.getEvictions();
+    }
+}
@@ -31,13 +31,12 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
     private final ProceduralStream<T> stream;
     private final WorldCache2D<T> cache;
     private final Engine engine;
-    private final boolean chunked = true;
 
     public CachedStream2D(String name, Engine engine, ProceduralStream<T> stream, int size) {
         super();
         this.stream = stream;
         this.engine = engine;
-        cache = new WorldCache2D<>(stream::get);
+        cache = new WorldCache2D<>(stream::get, size);
         Iris.service(PreservationSVC.class).registerCache(this);
     }
 
@@ -53,10 +52,24 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
 
     @Override
     public T get(double x, double z) {
-        //return stream.get(x, z);
         return cache.get((int) x, (int) z);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        if (x != (int) x || z != (int) z) {
+            ProceduralStream.super.fill2D(x, z, w, h, out);
+            return;
+        }
+
+        cache.fill((int) x, (int) z, w, h, out);
+    }
+
+    @Override
+    public void fill2D(double x, double z, int w, int h, double[] out) {
+        fill2DToDouble(x, z, w, h, out);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return stream.get(x, y, z);
@@ -74,11 +87,26 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
 
     @Override
     public long getMaxSize() {
-        return 256 * 32;
+        return cache.getMaxSize();
     }
 
     @Override
     public boolean isClosed() {
         return engine.isClosed();
     }
+
+    @Override
+    public long getHitCount() {
+        return cache.getHits();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.getEvictions();
+    }
 }
@@ -33,6 +33,47 @@ public class ContextInjectingStream<T> extends BasicStream<T> {
         return getTypedSource().get(x, z);
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        IrisContext context = IrisContext.get();
+        ChunkContext chunkContext = context == null ? null : context.getChunkContext();
+
+        if (chunkContext == null
+                || (int) x >> 4 != chunkContext.getX() >> 4 || (int) (x + w - 1) >> 4 != chunkContext.getX() >> 4
+                || (int) z >> 4 != chunkContext.getZ() >> 4 || (int) (z + h - 1) >> 4 != chunkContext.getZ() >> 4) {
+            getTypedSource().fill2D(x, z, w, h, out);
+            return;
+        }
+
+        int i, j;
+
+        for (j = 0; j < h; j++) {
+            for (i = 0; i < w; i++) {
+                T t = contextAccessor.apply(chunkContext, (int) (x + i) & 15, (int) (z + j) & 15);
+                out[(j * w) + i] = t == null ? getTypedSource().get(x + i, z + j) : t;
+            }
+        }
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        IrisContext context = IrisContext.get();
+
+        if (context != null) {
+            ChunkContext chunkContext = context.getChunkContext();
+
+            if (chunkContext != null && (int) x >> 4 == chunkContext.getX() >> 4 && (int) z >> 4 == chunkContext.getZ() >> 4) {
+                T t = contextAccessor.apply(chunkContext, (int) x & 15, (int) z & 15);
+
+                if (t != null) {
+                    return toDouble(t);
+                }
+            }
+        }
+
+        return getTypedSource().getDouble(x, z);
+    }
+
     @Override
     public T get(double x, double y, double z) {
         return getTypedSource().get(x, y, z);
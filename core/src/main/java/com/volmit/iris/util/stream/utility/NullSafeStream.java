@@ -52,6 +52,17 @@ public class NullSafeStream<T> extends BasicStream<T> implements ProceduralStrea
         return t;
     }
 
+    @Override
+    public void fill2D(double x, double z, int w, int h, T[] out) {
+        stream.fill2D(x, z, w, h, out);
+
+        for (int i = 0; i < w * h; i++) {
+            if (out[i] == null) {
+                out[i] = ifNull;
+            }
+        }
+    }
+
     @Override
     public T get(double x, double y, double z) {
         T t = stream.get(x, y, z);
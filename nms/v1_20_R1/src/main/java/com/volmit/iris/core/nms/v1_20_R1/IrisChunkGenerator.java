@@ -34,6 +34,8 @@ import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeManager;
 import net.minecraft.world.level.biome.BiomeSource;
 import net.minecraft.world.level.biome.MobSpawnSettings;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
@@ -49,6 +51,7 @@ import org.bukkit.craftbukkit.v1_20_R1.generator.CustomChunkGenerator;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -197,7 +200,7 @@ public class IrisChunkGenerator extends CustomChunkGenerator {
 
     @Override
     public int getBaseHeight(int i, int j, Heightmap.Types heightmap_type, LevelHeightAccessor levelheightaccessor, RandomState randomstate) {
-        return delegate.getBaseHeight(i, j, heightmap_type, levelheightaccessor, randomstate);
+        return engine.getBaseHeight(i, j, heightmap_type != Heightmap.Types.OCEAN_FLOOR && heightmap_type != Heightmap.Types.OCEAN_FLOOR_WG);
     }
 
     @Override
@@ -232,7 +235,14 @@ public class IrisChunkGenerator extends CustomChunkGenerator {
 
     @Override
     public NoiseColumn getBaseColumn(int i, int j, LevelHeightAccessor levelheightaccessor, RandomState randomstate) {
-        return delegate.getBaseColumn(i, j, levelheightaccessor, randomstate);
+        int min = engine.getMinHeight();
+        int solid = engine.getBaseHeight(i, j, false) - min;
+        int fluid = engine.getBaseHeight(i, j, true) - min;
+        BlockState[] column = new BlockState[engine.getHeight()];
+        Arrays.fill(column, 0, solid, Blocks.STONE.defaultBlockState());
+        Arrays.fill(column, solid, fluid, Blocks.WATER.defaultBlockState());
+        Arrays.fill(column, fluid, column.length, Blocks.AIR.defaultBlockState());
+        return new NoiseColumn(min, column);
     }
 
     static {